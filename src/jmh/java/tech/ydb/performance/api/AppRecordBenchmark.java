@@ -0,0 +1,50 @@
+package tech.ydb.performance.api;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppRecordBenchmark {
+    @Param({ "100", "2000", "65536" })
+    private int recordSize;
+
+    private AppRecord record;
+    private AppRecord copy;
+
+    @Setup
+    public void setup() {
+        record = AppRecord.createByIndex(1, recordSize);
+        copy = AppRecord.createByIndex(1, recordSize);
+    }
+
+    @Benchmark
+    public AppRecord createByIndex() {
+        return AppRecord.createByIndex(ThreadLocalRandom.current().nextLong(1_000_000), recordSize);
+    }
+
+    @Benchmark
+    public boolean equalRecords() {
+        return record.equals(copy);
+    }
+}
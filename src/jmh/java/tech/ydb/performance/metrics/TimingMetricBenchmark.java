@@ -0,0 +1,64 @@
+package tech.ydb.performance.metrics;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimingMetricBenchmark {
+    private static final int SAMPLES_COUNT = 1024;
+
+    private final long[] samples = new long[SAMPLES_COUNT];
+    private final TimingMetric timing = new TimingMetric();
+    private final RequestMetric request = new RequestMetric();
+    private final RequestMetric intervalRequest = new RequestMetric(new IntervalRecorder());
+    private int idx = 0;
+
+    @Setup
+    public void setup() {
+        // log-normal latencies with 1ms median
+        Random rnd = new Random(0);
+        for (int i = 0; i < SAMPLES_COUNT; i += 1) {
+            samples[i] = (long)Math.exp(Math.log(1_000_000) + rnd.nextGaussian());
+        }
+    }
+
+    private long nextSample() {
+        idx = (idx + 1) & (SAMPLES_COUNT - 1);
+        return samples[idx];
+    }
+
+    @Benchmark
+    public void timingRecord() {
+        timing.record(nextSample());
+    }
+
+    @Benchmark
+    public void requestRecord() {
+        request.record(true, nextSample());
+    }
+
+    @Benchmark
+    public void requestWithIntervalRecord() {
+        intervalRequest.record(true, nextSample());
+    }
+}
@@ -0,0 +1,68 @@
+package tech.ydb.performance.runtime;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tech.ydb.performance.api.AppRecord;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkUpsertValuesBenchmark {
+    @Param({ "100", "2000" })
+    private int recordSize;
+
+    @Param({ "10", "100", "500" })
+    private int batchSize;
+
+    private List<AppRecord> batch;
+
+    @Setup
+    public void setup() {
+        batch = LongStream.range(0, batchSize)
+                .mapToObj(idx -> AppRecord.createByIndex(idx, recordSize))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Object sdkV1Values() {
+        return YdbRuntimeV1.recordsToValue(batch);
+    }
+
+    @Benchmark
+    public Object sdkV2Values() {
+        return YdbRuntimeV2.recordsToValue(batch);
+    }
+
+    // conversion to protobuf message, it copies payloads unless they are wrapped into ByteString
+    @Benchmark
+    public Object sdkV1Proto() {
+        return YdbRuntimeV1.recordsToValue(batch).toPb();
+    }
+
+    @Benchmark
+    public Object sdkV2Proto() {
+        return YdbRuntimeV2.recordsToValue(batch).toPb();
+    }
+}
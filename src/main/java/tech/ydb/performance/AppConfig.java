@@ -9,6 +9,8 @@ import joptsimple.OptionSet;
 import joptsimple.OptionSpec;
 import joptsimple.OptionSpecBuilder;
 
+import tech.ydb.performance.api.YdbRuntime;
+
 /**
  *
  * @author Aleksandr Gorshenin
@@ -18,7 +20,38 @@ public class AppConfig {
         LOAD,
         READ,
         MULTIREAD,
+        MULTIGET,
         REACTIVE,
+        VIRTUAL,
+        MIXED,
+        SCAN,
+    }
+
+    public enum Distribution {
+        UNIFORM,
+        /** popularity of the key with rank i is proportional to 1 / i^theta */
+        ZIPFIAN,
+        /** hotspot ops fraction of requests read hotspot fraction of keys */
+        HOTSPOT,
+        /** zipfian distribution where the most popular keys are the last inserted ones */
+        LATEST,
+        /** every worker reads keys one by one from its own start position */
+        SEQUENTIAL,
+    }
+
+    public enum VerifyMode {
+        /** compare with the regenerated record */
+        FULL,
+        /** compare checksum of payload with the checksum from key index */
+        CHECKSUM,
+        /** compare every N-th record with the regenerated one on the background thread */
+        SAMPLED,
+        OFF,
+    }
+
+    public enum SaturationKnob {
+        THREADS,
+        RATE,
     }
 
     private final static OptionParser PARSER = new OptionParser();
@@ -57,23 +90,327 @@ public class AppConfig {
             .ofType(Integer.class)
             .defaultsTo(500);
 
+    private final static OptionSpecBuilder BATCH_SIZE_ADAPTIVE = PARSER
+            .accepts("batchsize-adaptive", "Adjust batch size of load workload by observed throughput and errors");
+
+    private final static OptionSpec<Integer> BATCH_SIZE_MAX = PARSER
+            .accepts("batchsize-max", "Max batch size of adaptive mode")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(10000);
+
+    private final static OptionSpec<Integer> BATCH_SIZE_MAX_LATENCY = PARSER
+            .accepts("batchsize-max-latency-ms", "Adaptive mode decreases batch size if bulk upserts are slower")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(1000);
+
+    private final static OptionSpec<Integer> LOAD_WINDOW = PARSER
+            .accepts("load-window", "Count of in-flight bulk upserts per thread of load workload")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(4);
+
+    private final static OptionSpec<Integer> LOAD_INFLIGHT_MB = PARSER
+            .accepts("load-inflight-mb", "Limit of total size of in-flight bulk upserts of load workload in MB")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(256);
+
+    private final static OptionSpec<Integer> KEYS_PER_REQUEST = PARSER
+            .accepts("keys-per-request", "Count of keys in one request of multiget workload")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(10);
+
+    private final static OptionSpec<String> SCAN_MODE = PARSER
+            .accepts("scan-mode", "Streaming method of scan workload: read_table or scan_query")
+            .withRequiredArg()
+            .ofType(String.class)
+            .defaultsTo("read_table");
+
+    private final static OptionSpec<Integer> SCAN_RANGES = PARSER
+            .accepts("scan-ranges", "Count of key ranges of scan workload, zero means count of threads")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(0);
+
+    private final static OptionSpec<Integer> MAX_INFLIGHT = PARSER
+            .accepts("max-inflight", "Limit of in-flight requests of reactive workload, "
+                    + "zero means count of threads for closed loop and rate limited by 64 requests per thread for open loop")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(0);
+
+    private final static OptionSpecBuilder REACTIVE_DIRECT = PARSER
+            .accepts("reactive-direct", "Run callbacks of reactive workload on SDK threads instead of own executor");
+
+    private final static OptionSpecBuilder REQUEST_PHASES = PARSER
+            .accepts("request-phases", "Measure phases of read requests: schedule, session, send, response, "
+                    + "callback and verify");
+
+    private final static OptionSpecBuilder RESOURCE_ACCOUNTING = PARSER
+            .accepts("resource-accounting", "Report client CPU time, heap allocations and GC activity per operation");
+
+    private final static OptionSpec<String> JFR_FILE = PARSER
+            .accepts("jfr-file", "Record the measured window by Java Flight Recorder to this file")
+            .withRequiredArg()
+            .ofType(String.class);
+
     private final static OptionSpec<Integer> TEST_DURATION = PARSER
             .acceptsAll(Arrays.asList("d", "testduration"), "Test's duration in seconds")
             .withRequiredArg()
             .ofType(Integer.class)
             .defaultsTo(120);
 
+    private final static OptionSpec<Integer> RATE = PARSER
+            .accepts("rate", "Target count of requests per second, zero means closed loop mode")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(0);
+
+    private final static OptionSpec<Integer> REPORT_INTERVAL = PARSER
+            .accepts("report-interval", "Interval of live reports in seconds, zero disables live reports")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(0);
+
+    private final static OptionSpec<String> REPORT_FILE = PARSER
+            .accepts("report-file", "File for live reports, CSV if name ends with .csv, JSON lines otherwise")
+            .withRequiredArg()
+            .ofType(String.class);
+
+    private final static OptionSpec<String> KEY_INDEX_FILE = PARSER
+            .accepts("key-index", "File with precomputed record keys, it is built if absent")
+            .withRequiredArg()
+            .ofType(String.class);
+
+    private final static OptionSpec<Double> MIXED_READ = PARSER
+            .accepts("mixed-read", "Weight of reads in mixed workload")
+            .withRequiredArg()
+            .ofType(Double.class)
+            .defaultsTo(0.5);
+
+    private final static OptionSpec<Double> MIXED_UPDATE = PARSER
+            .accepts("mixed-update", "Weight of updates of existing records in mixed workload")
+            .withRequiredArg()
+            .ofType(Double.class)
+            .defaultsTo(0.5);
+
+    private final static OptionSpec<Double> MIXED_INSERT = PARSER
+            .accepts("mixed-insert", "Weight of inserts of new records in mixed workload")
+            .withRequiredArg()
+            .ofType(Double.class)
+            .defaultsTo(0d);
+
+    private final static OptionSpec<Double> MIXED_READ_UPDATE = PARSER
+            .accepts("mixed-read-update", "Weight of reads followed by update of the same record in mixed workload, "
+                    + "they are two requests without the common transaction")
+            .withRequiredArg()
+            .ofType(Double.class)
+            .defaultsTo(0d);
+
+    private final static OptionSpec<String> KEY_DISTRIBUTION = PARSER
+            .accepts("key-distribution", "Distribution of read keys: uniform, zipfian, hotspot, latest or sequential")
+            .withRequiredArg()
+            .ofType(String.class)
+            .defaultsTo("uniform");
+
+    private final static OptionSpec<Double> ZIPFIAN_THETA = PARSER
+            .accepts("zipfian-theta", "Skew of zipfian and latest distributions, in range (0, 1)")
+            .withRequiredArg()
+            .ofType(Double.class)
+            .defaultsTo(0.99);
+
+    private final static OptionSpec<Double> HOTSPOT_FRACTION = PARSER
+            .accepts("hotspot-fraction", "Fraction of keys in the hotspot")
+            .withRequiredArg()
+            .ofType(Double.class)
+            .defaultsTo(0.2);
+
+    private final static OptionSpec<Double> HOTSPOT_OPS = PARSER
+            .accepts("hotspot-ops", "Fraction of reads of the hotspot keys")
+            .withRequiredArg()
+            .ofType(Double.class)
+            .defaultsTo(0.8);
+
+    private final static OptionSpec<String> QUERY_MODE = PARSER
+            .accepts("query-mode", "Mode of read queries: text, cached (server query cache) or prepared")
+            .withRequiredArg()
+            .ofType(String.class)
+            .defaultsTo("text");
+
+    private final static OptionSpec<String> VERIFY_MODE = PARSER
+            .accepts("verify", "Verification of read records: full, checksum (requires key-index), sampled or off")
+            .withRequiredArg()
+            .ofType(String.class)
+            .defaultsTo("full");
+
+    private final static OptionSpec<Integer> VERIFY_SAMPLE_RATE = PARSER
+            .accepts("verify-sample", "Sampled verification checks one of N read records")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(100);
+
     private final static OptionSpec<String> SCRIPT_FILE = PARSER
             .accepts("script")
             .withOptionalArg()
             .ofType(String.class);
 
+    private final static OptionSpec<String> SCRIPT_RESULT = PARSER
+            .accepts("script-result", "Result file of script steps, CSV if name ends with .csv, JSON lines otherwise")
+            .withRequiredArg()
+            .ofType(String.class);
+
+    private final static OptionSpec<String> RESULT_FILE = PARSER
+            .accepts("result-file", "JSON file for metrics and metadata of the run")
+            .withRequiredArg()
+            .ofType(String.class);
+
+    private final static OptionSpec<String> COMPARE = PARSER
+            .accepts("compare", "Compare this result file with --baseline, exit code is 1 if there are regressions")
+            .withRequiredArg()
+            .ofType(String.class);
+
+    private final static OptionSpec<String> BASELINE = PARSER
+            .accepts("baseline", "Baseline result file for --compare")
+            .withRequiredArg()
+            .ofType(String.class);
+
+    private final static OptionSpec<Double> TOLERANCE_THROUGHPUT = PARSER
+            .accepts("tolerance-throughput", "Allowed decrease of *_PER_SECOND metrics in percents")
+            .withRequiredArg()
+            .ofType(Double.class)
+            .defaultsTo(5d);
+
+    private final static OptionSpec<Double> TOLERANCE_LATENCY = PARSER
+            .accepts("tolerance-latency", "Allowed increase of latency percentiles in percents")
+            .withRequiredArg()
+            .ofType(Double.class)
+            .defaultsTo(10d);
+
+    private final static OptionSpec<Double> TOLERANCE_LATENCY_MIN_MS = PARSER
+            .accepts("tolerance-latency-min-ms", "Allowed increase of latency percentiles in ms, "
+                    + "the max of both tolerances is used")
+            .withRequiredArg()
+            .ofType(Double.class)
+            .defaultsTo(0.1d);
+
+    private final static OptionSpec<String> SATURATE = PARSER
+            .accepts("saturate", "Search max threads or rate satisfying SLO: threads or rate")
+            .withRequiredArg()
+            .ofType(String.class);
+
+    private final static OptionSpec<Long> SATURATION_FROM = PARSER
+            .accepts("saturate-from", "Value of the first probe of saturation search")
+            .withRequiredArg()
+            .ofType(Long.class)
+            .defaultsTo(1L);
+
+    private final static OptionSpec<Long> SATURATION_MAX = PARSER
+            .accepts("saturate-max", "Max value of saturation search, default is 1024 threads or 1048576 requests "
+                    + "per second")
+            .withRequiredArg()
+            .ofType(Long.class);
+
+    private final static OptionSpec<Integer> SATURATION_WARMUP = PARSER
+            .accepts("saturate-warmup", "Duration of warmup run before every probe in seconds")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(2);
+
+    private final static OptionSpec<Double> SLO_P99_MS = PARSER
+            .accepts("slo-p99-ms", "Latency SLO of saturation search in ms")
+            .withRequiredArg()
+            .ofType(Double.class)
+            .defaultsTo(100d);
+
+    private final static OptionSpec<Double> SLO_ERROR_RATE = PARSER
+            .accepts("slo-error-rate", "Error rate SLO of saturation search")
+            .withRequiredArg()
+            .ofType(Double.class)
+            .defaultsTo(0.01d);
+
+    private final static OptionSpec<String> SLO_METRIC = PARSER
+            .accepts("slo-metric", "Latency metric of SLO, "
+                    + "default is READ_DATA_OK_P99_MS for threads and REQUEST_CORRECTED_OK_P99_MS for rate")
+            .withRequiredArg()
+            .ofType(String.class);
+
+    private final static OptionSpec<Integer> COORDINATOR_PORT = PARSER
+            .accepts("coordinator", "Run as coordinator of distributed workers, listen workers on this port")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(0);
+
+    private final static OptionSpec<Integer> WORKERS = PARSER
+            .accepts("workers", "Count of workers which coordinator waits for")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(1);
+
+    private final static OptionSpec<Integer> SHARD = PARSER
+            .accepts("shard", "Number of the part of key range loaded, scanned or inserted by this instance, it is "
+                    + "set by coordinator for every worker")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(0);
+
+    private final static OptionSpec<Integer> SHARDS = PARSER
+            .accepts("shards", "Count of parts of key range for load, scan and mixed workloads")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(1);
+
+    private final static OptionSpec<String> WORKER = PARSER
+            .accepts("worker", "Run as worker of coordinator with address host:port, other options are ignored")
+            .withRequiredArg()
+            .ofType(String.class);
+
+    private final static OptionSpec<Integer> METRICS_PORT = PARSER
+            .accepts("metrics-port", "Port of HTTP endpoint /metrics with live metrics in Prometheus text format")
+            .withRequiredArg()
+            .ofType(Integer.class)
+            .defaultsTo(0);
+
+    private final static OptionSpecBuilder METRICS_JMX = PARSER
+            .accepts("metrics-jmx", "Register live metrics as JMX MBeans");
+
     private final static OptionSpecBuilder DISABLE_WARMUP = PARSER
             .accepts("disable-warnup");
 
     private final static OptionSpecBuilder USE_YDB_SDK_V1 = PARSER
             .accepts("use-sdk-v1");
 
+    private final static OptionSpecBuilder STICKY_SESSIONS = PARSER
+            .accepts("sticky-sessions", "Keep one session per worker instead of taking it from the pool for every request");
+
+    private final static OptionSpecBuilder USE_IN_MEMORY = PARSER
+            .accepts("use-in-memory", "Use in-process stand-in instead of YDB, endpoint is ignored");
+
+    private final static OptionSpecBuilder IN_MEMORY_PRELOAD = PARSER
+            .accepts("inmem-preload", "Fill in-memory runtime with all records on start");
+
+    private final static OptionSpec<String> IN_MEMORY_LATENCY = PARSER
+            .accepts("inmem-latency", "Request latency of in-memory runtime in microseconds: "
+                    + "fixed:<v>, uniform:<min>:<max>, exp:<mean> or lognormal:<median>:<sigma>")
+            .withRequiredArg()
+            .ofType(String.class)
+            .defaultsTo("fixed:0");
+
+    private final static OptionSpec<String> IN_MEMORY_SESSION_LATENCY = PARSER
+            .accepts("inmem-session-latency", "Session acquire latency of in-memory runtime in microseconds")
+            .withRequiredArg()
+            .ofType(String.class)
+            .defaultsTo("fixed:0");
+
+    private final static OptionSpec<Double> IN_MEMORY_ERROR_RATE = PARSER
+            .accepts("inmem-error-rate", "Probability of error of in-memory runtime requests")
+            .withRequiredArg()
+            .ofType(Double.class)
+            .defaultsTo(0d);
+
+    private final String[] arguments;
     private final String endpoint;
     private final Cmd cmd;
     private final String tableName;
@@ -82,22 +419,149 @@ public class AppConfig {
     private final int recordCount;
     private final int recordSize;
     private final int batchSize;
+    private final boolean batchSizeAdaptive;
+    private final int batchSizeMax;
+    private final int batchSizeMaxLatencyMs;
+    private final int loadWindow;
+    private final int loadInflightMb;
+    private final int keysPerRequest;
+    private final YdbRuntime.ScanMode scanMode;
+    private final int scanRanges;
+    private final int maxInflight;
+    private final boolean reactiveDirect;
+    private final boolean requestPhases;
+    private final boolean resourceAccounting;
+    private final String jfrFile;
     private final int testDurationSeconds;
+    private final int rate;
+    private final int reportIntervalSeconds;
+    private final String reportFile;
+    private final String keyIndexFile;
+    private final double mixedRead;
+    private final double mixedUpdate;
+    private final double mixedInsert;
+    private final double mixedReadUpdate;
+    private final Distribution keyDistribution;
+    private final double zipfianTheta;
+    private final double hotspotFraction;
+    private final double hotspotOps;
+    private final YdbRuntime.QueryMode queryMode;
+    private final VerifyMode verifyMode;
+    private final int verifySampleRate;
     private final boolean useSdkV1;
+    private final boolean stickySessions;
+    private final boolean useInMemory;
+    private final boolean inMemoryPreload;
+    private final String inMemoryLatency;
+    private final String inMemorySessionLatency;
+    private final double inMemoryErrorRate;
     private final boolean disableWarmup;
-
-    private AppConfig(String endpoint, Cmd cmd, OptionSet options) {
+    private final String scriptResult;
+    private final String resultFile;
+    private final String compareCurrent;
+    private final String compareBaseline;
+    private final double toleranceThroughput;
+    private final double toleranceLatency;
+    private final double toleranceLatencyMinMs;
+    private final SaturationKnob saturationKnob;
+    private final long saturationFrom;
+    private final long saturationMax;
+    private final int saturationWarmupSeconds;
+    private final double sloP99Ms;
+    private final double sloErrorRate;
+    private final String sloMetric;
+    private final int coordinatorPort;
+    private final int workersCount;
+    private final int shard;
+    private final int shards;
+    private final String workerAddress;
+    private final int metricsPort;
+    private final boolean metricsJmx;
+
+    private AppConfig(String[] arguments, String endpoint, Cmd cmd, OptionSet options) {
+        this.arguments = arguments;
         this.endpoint = endpoint;
         this.cmd = cmd;
-        this.tableName = options.valueOf(TABLE_NAME);
-        this.threadsCount = options.valueOf(THREADS);
-        this.recordCount = options.valueOf(RECORD_COUNT);
-        this.recordSize = options.valueOf(RECORD_SIZE);
-        this.batchSize = options.valueOf(BATCH_SIZE);
-        this.testDurationSeconds = options.valueOf(TEST_DURATION);
+        this.tableName = lastValueOf(options, TABLE_NAME);
+        this.threadsCount = lastValueOf(options, THREADS);
+        this.recordCount = lastValueOf(options, RECORD_COUNT);
+        this.recordSize = lastValueOf(options, RECORD_SIZE);
+        this.batchSize = lastValueOf(options, BATCH_SIZE);
+        this.batchSizeAdaptive = options.has(BATCH_SIZE_ADAPTIVE);
+        this.batchSizeMax = lastValueOf(options, BATCH_SIZE_MAX);
+        this.batchSizeMaxLatencyMs = lastValueOf(options, BATCH_SIZE_MAX_LATENCY);
+        this.loadWindow = lastValueOf(options, LOAD_WINDOW);
+        this.loadInflightMb = lastValueOf(options, LOAD_INFLIGHT_MB);
+        this.keysPerRequest = lastValueOf(options, KEYS_PER_REQUEST);
+        this.scanMode = YdbRuntime.ScanMode.valueOf(lastValueOf(options, SCAN_MODE).toUpperCase());
+        this.scanRanges = lastValueOf(options, SCAN_RANGES);
+        this.maxInflight = lastValueOf(options, MAX_INFLIGHT);
+        this.reactiveDirect = options.has(REACTIVE_DIRECT);
+        this.requestPhases = options.has(REQUEST_PHASES);
+        this.resourceAccounting = options.has(RESOURCE_ACCOUNTING);
+        this.jfrFile = lastValueOf(options, JFR_FILE);
+        this.testDurationSeconds = lastValueOf(options, TEST_DURATION);
+        this.rate = lastValueOf(options, RATE);
+        this.reportIntervalSeconds = lastValueOf(options, REPORT_INTERVAL);
+        this.reportFile = lastValueOf(options, REPORT_FILE);
+        this.keyIndexFile = lastValueOf(options, KEY_INDEX_FILE);
+        this.mixedRead = lastValueOf(options, MIXED_READ);
+        this.mixedUpdate = lastValueOf(options, MIXED_UPDATE);
+        this.mixedInsert = lastValueOf(options, MIXED_INSERT);
+        this.mixedReadUpdate = lastValueOf(options, MIXED_READ_UPDATE);
+        this.keyDistribution = Distribution.valueOf(lastValueOf(options, KEY_DISTRIBUTION).toUpperCase());
+        this.zipfianTheta = lastValueOf(options, ZIPFIAN_THETA);
+        this.hotspotFraction = lastValueOf(options, HOTSPOT_FRACTION);
+        this.hotspotOps = lastValueOf(options, HOTSPOT_OPS);
+        this.queryMode = YdbRuntime.QueryMode.valueOf(lastValueOf(options, QUERY_MODE).toUpperCase());
+        this.verifyMode = VerifyMode.valueOf(lastValueOf(options, VERIFY_MODE).toUpperCase());
+        this.verifySampleRate = lastValueOf(options, VERIFY_SAMPLE_RATE);
         this.useSdkV1 = options.has(USE_YDB_SDK_V1);
+        this.stickySessions = options.has(STICKY_SESSIONS);
+        this.useInMemory = options.has(USE_IN_MEMORY);
+        this.inMemoryPreload = options.has(IN_MEMORY_PRELOAD);
+        this.inMemoryLatency = lastValueOf(options, IN_MEMORY_LATENCY);
+        this.inMemorySessionLatency = lastValueOf(options, IN_MEMORY_SESSION_LATENCY);
+        this.inMemoryErrorRate = lastValueOf(options, IN_MEMORY_ERROR_RATE);
         this.disableWarmup = options.has(DISABLE_WARMUP);
-        this.scriptFile = options.valueOf(SCRIPT_FILE);
+        this.scriptFile = lastValueOf(options, SCRIPT_FILE);
+        this.scriptResult = lastValueOf(options, SCRIPT_RESULT);
+        this.resultFile = lastValueOf(options, RESULT_FILE);
+        this.compareCurrent = lastValueOf(options, COMPARE);
+        this.compareBaseline = lastValueOf(options, BASELINE);
+        this.toleranceThroughput = lastValueOf(options, TOLERANCE_THROUGHPUT);
+        this.toleranceLatency = lastValueOf(options, TOLERANCE_LATENCY);
+        this.toleranceLatencyMinMs = lastValueOf(options, TOLERANCE_LATENCY_MIN_MS);
+        String saturate = lastValueOf(options, SATURATE);
+        this.saturationKnob = saturate != null ? SaturationKnob.valueOf(saturate.toUpperCase()) : null;
+        this.saturationFrom = lastValueOf(options, SATURATION_FROM);
+        Long saturateMax = lastValueOf(options, SATURATION_MAX);
+        if (saturateMax == null) {
+            saturateMax = saturationKnob == SaturationKnob.RATE ? 1024L * 1024L : 1024L;
+        }
+        this.saturationMax = saturateMax;
+        if (saturationKnob != null && saturationFrom > saturationMax) {
+            throw new IllegalArgumentException("Saturation search from " + saturationFrom + " is greater than max "
+                    + saturationMax);
+        }
+        if (verifyMode == VerifyMode.CHECKSUM && keyIndexFile == null) {
+            throw new IllegalArgumentException("Checksum verification requires --key-index");
+        }
+        this.saturationWarmupSeconds = lastValueOf(options, SATURATION_WARMUP);
+        this.sloP99Ms = lastValueOf(options, SLO_P99_MS);
+        this.sloErrorRate = lastValueOf(options, SLO_ERROR_RATE);
+        this.sloMetric = lastValueOf(options, SLO_METRIC);
+        this.coordinatorPort = lastValueOf(options, COORDINATOR_PORT);
+        this.workersCount = lastValueOf(options, WORKERS);
+        this.shard = lastValueOf(options, SHARD);
+        this.shards = lastValueOf(options, SHARDS);
+        this.workerAddress = lastValueOf(options, WORKER);
+        this.metricsPort = lastValueOf(options, METRICS_PORT);
+        this.metricsJmx = options.has(METRICS_JMX);
+    }
+
+    public String[] arguments() {
+        return this.arguments.clone();
     }
 
     public String endpoint() {
@@ -116,6 +580,103 @@ public class AppConfig {
         return this.scriptFile;
     }
 
+    public String scriptResult() {
+        return this.scriptResult;
+    }
+
+    public String resultFile() {
+        return this.resultFile;
+    }
+
+    public String compareCurrent() {
+        return this.compareCurrent;
+    }
+
+    public String compareBaseline() {
+        return this.compareBaseline;
+    }
+
+    public double toleranceThroughput() {
+        return this.toleranceThroughput;
+    }
+
+    public double toleranceLatency() {
+        return this.toleranceLatency;
+    }
+
+    public double toleranceLatencyMinMs() {
+        return this.toleranceLatencyMinMs;
+    }
+
+    public SaturationKnob saturationKnob() {
+        return this.saturationKnob;
+    }
+
+    public long saturationFrom() {
+        return this.saturationFrom;
+    }
+
+    public long saturationMax() {
+        return this.saturationMax;
+    }
+
+    public int saturationWarmupSeconds() {
+        return this.saturationWarmupSeconds;
+    }
+
+    public double sloP99Ms() {
+        return this.sloP99Ms;
+    }
+
+    public double sloErrorRate() {
+        return this.sloErrorRate;
+    }
+
+    public String sloMetric() {
+        return this.sloMetric;
+    }
+
+    /**
+     * Options of the runtime except count of threads, steps of script with the same key share one runtime
+     * @return key of the runtime
+     */
+    public String runtimeKey() {
+        if (useInMemory) {
+            return String.join("|", "in-memory", String.valueOf(recordCount), String.valueOf(recordSize),
+                    String.valueOf(inMemoryPreload), inMemoryLatency, inMemorySessionLatency,
+                    String.valueOf(inMemoryErrorRate));
+        }
+        return String.join("|", endpoint, useSdkV1 ? "v1" : "v2", tableName, queryMode.name());
+    }
+
+    public int coordinatorPort() {
+        return this.coordinatorPort;
+    }
+
+    public int workersCount() {
+        return this.workersCount;
+    }
+
+    public int shard() {
+        return this.shard;
+    }
+
+    public int shards() {
+        return this.shards;
+    }
+
+    public String workerAddress() {
+        return this.workerAddress;
+    }
+
+    public int metricsPort() {
+        return this.metricsPort;
+    }
+
+    public boolean metricsJmx() {
+        return this.metricsJmx;
+    }
+
     public int threadsCount() {
         return this.threadsCount;
     }
@@ -132,22 +693,169 @@ public class AppConfig {
         return this.batchSize;
     }
 
+    public boolean batchSizeAdaptive() {
+        return this.batchSizeAdaptive;
+    }
+
+    public int batchSizeMax() {
+        return this.batchSizeMax;
+    }
+
+    public int batchSizeMaxLatencyMs() {
+        return this.batchSizeMaxLatencyMs;
+    }
+
+    public int loadWindow() {
+        return this.loadWindow;
+    }
+
+    public int loadInflightMb() {
+        return this.loadInflightMb;
+    }
+
+    public int keysPerRequest() {
+        return this.keysPerRequest;
+    }
+
+    public YdbRuntime.ScanMode scanMode() {
+        return this.scanMode;
+    }
+
+    public int scanRanges() {
+        return this.scanRanges;
+    }
+
+    public int maxInflight() {
+        return this.maxInflight;
+    }
+
+    public boolean reactiveDirect() {
+        return this.reactiveDirect;
+    }
+
+    public boolean requestPhases() {
+        return this.requestPhases;
+    }
+
+    public boolean resourceAccounting() {
+        return this.resourceAccounting;
+    }
+
+    public String jfrFile() {
+        return this.jfrFile;
+    }
+
     public int testDurationSeconds() {
         return this.testDurationSeconds;
     }
 
+    public int rate() {
+        return this.rate;
+    }
+
+    public int reportIntervalSeconds() {
+        return this.reportIntervalSeconds;
+    }
+
+    public String reportFile() {
+        return this.reportFile;
+    }
+
+    public String keyIndexFile() {
+        return this.keyIndexFile;
+    }
+
+    public double mixedRead() {
+        return this.mixedRead;
+    }
+
+    public double mixedUpdate() {
+        return this.mixedUpdate;
+    }
+
+    public double mixedInsert() {
+        return this.mixedInsert;
+    }
+
+    public double mixedReadUpdate() {
+        return this.mixedReadUpdate;
+    }
+
+    public Distribution keyDistribution() {
+        return this.keyDistribution;
+    }
+
+    public double zipfianTheta() {
+        return this.zipfianTheta;
+    }
+
+    public double hotspotFraction() {
+        return this.hotspotFraction;
+    }
+
+    public double hotspotOps() {
+        return this.hotspotOps;
+    }
+
+    public YdbRuntime.QueryMode queryMode() {
+        return this.queryMode;
+    }
+
+    public VerifyMode verifyMode() {
+        return this.verifyMode;
+    }
+
+    public int verifySampleRate() {
+        return this.verifySampleRate;
+    }
+
     public boolean useSdkV1() {
         return this.useSdkV1;
     }
 
+    public boolean stickySessions() {
+        return this.stickySessions;
+    }
+
+    public boolean useInMemory() {
+        return this.useInMemory;
+    }
+
+    public boolean inMemoryPreload() {
+        return this.inMemoryPreload;
+    }
+
+    public String inMemoryLatency() {
+        return this.inMemoryLatency;
+    }
+
+    public String inMemorySessionLatency() {
+        return this.inMemorySessionLatency;
+    }
+
+    public double inMemoryErrorRate() {
+        return this.inMemoryErrorRate;
+    }
+
     public boolean warmupIsDisabled() {
         return this.disableWarmup;
     }
 
+    // script steps append their options to the base options, so the last value wins
+    private static <V> V lastValueOf(OptionSet options, OptionSpec<V> spec) {
+        List<V> values = options.valuesOf(spec);
+        return values.isEmpty() ? null : values.get(values.size() - 1);
+    }
+
     public static AppConfig parseArgs(String... args) {
         OptionSet options = PARSER.parse(args);
         List<?> nonOption = options.nonOptionArguments();
 
+        // worker receives all options from the coordinator, comparison of results needs no endpoint
+        if ((options.has(WORKER) || options.has(COMPARE)) && nonOption.isEmpty()) {
+            return new AppConfig(args, null, Cmd.READ, options);
+        }
+
         if (nonOption.isEmpty() || nonOption.size() > 2) {
 
             try {
@@ -167,6 +875,6 @@ public class AppConfig {
             cmd = Cmd.valueOf(String.valueOf(nonOption.get(1)).toUpperCase());
         }
 
-        return new AppConfig(endpoint, cmd, options);
+        return new AppConfig(args, endpoint, cmd, options);
     }
 }
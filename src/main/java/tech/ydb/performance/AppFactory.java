@@ -5,12 +5,17 @@ import org.slf4j.LoggerFactory;
 
 import tech.ydb.performance.api.Workload;
 import tech.ydb.performance.api.YdbRuntime;
+import tech.ydb.performance.runtime.YdbRuntimeInMemory;
 import tech.ydb.performance.runtime.YdbRuntimeV1;
 import tech.ydb.performance.runtime.YdbRuntimeV2;
 import tech.ydb.performance.workload.LoadWorkload;
+import tech.ydb.performance.workload.MixedWorkload;
+import tech.ydb.performance.workload.MultiGetWorkload;
 import tech.ydb.performance.workload.MultiReadWorkload;
 import tech.ydb.performance.workload.ReactiveWorkload;
 import tech.ydb.performance.workload.ReadWorkload;
+import tech.ydb.performance.workload.ResourceWorkload;
+import tech.ydb.performance.workload.ScanWorkload;
 
 /**
  *
@@ -22,6 +27,14 @@ public class AppFactory {
     private AppFactory() { }
 
     public static Workload createWorkload(AppConfig config, YdbRuntime runtime) {
+        Workload workload = createBaseWorkload(config, runtime);
+        if (config.resourceAccounting() || config.jfrFile() != null) {
+            return new ResourceWorkload(config, workload);
+        }
+        return workload;
+    }
+
+    private static Workload createBaseWorkload(AppConfig config, YdbRuntime runtime) {
         switch (config.cmd()) {
             case LOAD:
                 return new LoadWorkload(config, runtime);
@@ -29,14 +42,37 @@ public class AppFactory {
                 return new ReadWorkload(config, runtime);
             case MULTIREAD:
                 return new MultiReadWorkload(config, runtime);
+            case MULTIGET:
+                return new MultiGetWorkload(config, runtime);
             case REACTIVE:
                 return new ReactiveWorkload(config, runtime);
+            case VIRTUAL:
+                return createVirtualWorkload(config, runtime);
+            case MIXED:
+                return new MixedWorkload(config, runtime);
+            case SCAN:
+                return new ScanWorkload(config, runtime);
             default:
                 throw new RuntimeException("Unimplemented");
         }
     }
 
+    // workload is compiled only by java21 profile to the multi-release part of the jar
+    private static Workload createVirtualWorkload(AppConfig config, YdbRuntime runtime) {
+        try {
+            Class<?> clazz = Class.forName("tech.ydb.performance.workload.VirtualReadWorkload");
+            return (Workload) clazz.getConstructor(AppConfig.class, YdbRuntime.class).newInstance(config, runtime);
+        } catch (ReflectiveOperationException ex) {
+            throw new RuntimeException("Virtual read workload requires the jar built with -Pjava21 and Java 21", ex);
+        }
+    }
+
     public static YdbRuntime createYdbRuntime(AppConfig config) {
+        if (config.useInMemory()) {
+            logger.info("use in-memory runtime");
+            return new YdbRuntimeInMemory(config);
+        }
+
         if (config.useSdkV1()) {
             logger.info("use YDB Java SDK v1");
             return new YdbRuntimeV1(config);
@@ -0,0 +1,74 @@
+package tech.ydb.performance;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Messages of coordinator and workers. Worker connects and sends HELLO, coordinator sends CONFIG with
+ * arguments of the worker, worker creates the runtime and answers READY, then coordinator synchronizes
+ * clocks with PING/PONG and sends START with the start time by the worker clock. Worker runs the workload
+ * and sends RESULT with metrics or FAILED with error message at any step.
+ *
+ * @author Aleksandr Gorshenin
+ */
+final class ClusterProtocol {
+    static final int VERSION = 1;
+
+    static final byte HELLO = 1;
+    static final byte CONFIG = 2;
+    static final byte READY = 3;
+    static final byte PING = 4;
+    static final byte PONG = 5;
+    static final byte START = 6;
+    static final byte RESULT = 7;
+    static final byte FAILED = 8;
+
+    private ClusterProtocol() { }
+
+    static void expect(DataInputStream in, byte type) throws IOException {
+        byte received = in.readByte();
+        if (received == FAILED) {
+            throw new IOException("worker failed: " + in.readUTF());
+        }
+        if (received != type) {
+            throw new IOException("unexpected message " + received + ", expected " + type);
+        }
+    }
+
+    /**
+     * Removes options with values from arguments, both forms --name value and --name=value are supported
+     */
+    static List<String> removeOptions(String[] args, String... names) {
+        List<String> removed = Arrays.asList(names);
+        List<String> result = new ArrayList<>();
+        for (int idx = 0; idx < args.length; idx += 1) {
+            String arg = args[idx];
+            if (arg.startsWith("--") && removed.contains(arg.substring(2))) {
+                idx += 1;
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 0 && removed.contains(arg.substring(2, eq))) {
+                continue;
+            }
+            result.add(arg);
+        }
+        return result;
+    }
+
+    /**
+     * @param file name of file of the coordinator config
+     * @param workerId id of worker
+     * @return name of file of the worker, the id is added before the extension
+     */
+    static String workerFile(String file, int workerId) {
+        int dot = file.lastIndexOf('.');
+        if (dot <= 0 || dot < file.lastIndexOf('/') + 2) {
+            return file + "-worker" + workerId;
+        }
+        return file.substring(0, dot) + "-worker" + workerId + file.substring(dot);
+    }
+}
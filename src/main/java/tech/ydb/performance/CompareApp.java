@@ -0,0 +1,106 @@
+package tech.ydb.performance;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.DecimalFormat;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the result file with the baseline. Throughput metrics (*_PER_SECOND) must not decrease and
+ * latency percentiles (*_P50_MS ... *_P99_99_MS) must not increase more than the configured tolerance.
+ * Latencies of errors, metrics of single saturation probes and other metrics are printed for information only,
+ * probes of different runs have different knob values.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class CompareApp {
+    private static final Logger logger = LoggerFactory.getLogger(CompareApp.class);
+
+    private static final Pattern PERCENTILE = Pattern.compile(".*_P\\d+(_\\d+)?_MS");
+    private static final Pattern SATURATION_PROBE = Pattern.compile("SATURATION_PROBE_\\d+_.*");
+
+    private final AppConfig config;
+
+    public CompareApp(AppConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * @return true if there are no regressions
+     * @throws IOException if result files cannot be read
+     */
+    public boolean run() throws IOException {
+        ResultFile baseline = ResultFile.read(Paths.get(config.compareBaseline()));
+        ResultFile current = ResultFile.read(Paths.get(config.compareCurrent()));
+
+        logger.info("baseline {}", baseline.metadata());
+        logger.info("current  {}", current.metadata());
+
+        DecimalFormat df = new DecimalFormat("0.#####");
+        StringBuilder table = new StringBuilder("metric;baseline;current;change_%;status\n");
+        int regressions = 0;
+
+        for (Map.Entry<String, Double> e: baseline.metrics().entrySet()) {
+            String name = e.getKey();
+            double base = e.getValue();
+            Double value = current.metrics().get(name);
+            String status = status(name, base, value);
+            if ("REGRESSION".equals(status) || "MISSING".equals(status)) {
+                regressions += 1;
+            }
+
+            double change = value != null && base != 0 ? 100d * (value - base) / base : 0;
+            table.append(name).append(";").append(df.format(base)).append(";")
+                    .append(value != null ? df.format(value) : "").append(";")
+                    .append(df.format(change)).append(";").append(status).append("\n");
+        }
+
+        for (Map.Entry<String, Double> e: current.metrics().entrySet()) {
+            if (!baseline.metrics().containsKey(e.getKey())) {
+                table.append(e.getKey()).append(";;").append(df.format(e.getValue())).append(";;NEW\n");
+            }
+        }
+
+        logger.info("comparison with tolerance {}% for throughput and {}% for percentiles\n{}",
+                config.toleranceThroughput(), config.toleranceLatency(), table);
+
+        if (regressions > 0) {
+            logger.error("found {} regressions", regressions);
+            return false;
+        }
+        logger.info("no regressions");
+        return true;
+    }
+
+    String status(String name, double base, Double value) {
+        if (SATURATION_PROBE.matcher(name).matches()) {
+            return "";
+        }
+
+        boolean throughput = name.endsWith("_PER_SECOND");
+        // error series are absent if the run has no errors, it isn't a regression
+        boolean latency = PERCENTILE.matcher(name).matches() && !name.contains("_ERROR_");
+
+        if (value == null) {
+            return throughput || latency ? "MISSING" : "";
+        }
+
+        if (throughput) {
+            double min = base * (1 - config.toleranceThroughput() / 100d);
+            double max = base * (1 + config.toleranceThroughput() / 100d);
+            return value < min ? "REGRESSION" : value > max ? "IMPROVED" : "OK";
+        }
+
+        if (latency) {
+            // small differences of sub millisecond latencies are noise
+            double tolerance = Math.max(base * config.toleranceLatency() / 100d, config.toleranceLatencyMinMs());
+            return value > base + tolerance ? "REGRESSION" : value < base - tolerance ? "IMPROVED" : "OK";
+        }
+
+        return "";
+    }
+}
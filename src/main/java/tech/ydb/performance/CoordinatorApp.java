@@ -0,0 +1,184 @@
+package tech.ydb.performance;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.text.DecimalFormat;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.performance.api.Metric;
+import tech.ydb.performance.metrics.DistributedMetrics;
+
+/**
+ * Distributes the config to workers, starts them at the same time and merges their metrics.
+ * Total --rate is divided between workers, every worker runs the configured count of threads.
+ * Load and scan workloads are split by key ranges, every worker processes its own shard of keys.
+ * Live reports of every worker are written to its own file, the worker id is added to the file name.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class CoordinatorApp implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(CoordinatorApp.class);
+
+    // workers must receive the start time before the start
+    private static final long START_DELAY_MS = 2000;
+    private static final int CLOCK_SYNC_ROUNDS = 5;
+
+    private final AppConfig config;
+    private final List<String> workerArgs;
+    private final ServerSocket server;
+    private final List<WorkerConnection> workers = new ArrayList<>();
+
+    public CoordinatorApp(String[] args, AppConfig config) throws IOException {
+        if (config.rate() > 0 && config.rate() < config.workersCount()) {
+            throw new IllegalArgumentException("Rate " + config.rate() + " is less than count of workers "
+                    + config.workersCount() + ", every worker must have at least one request per second");
+        }
+        this.config = config;
+        this.workerArgs = ClusterProtocol.removeOptions(args, "coordinator", "workers", "rate", "shard", "shards",
+                "report-file");
+        this.server = new ServerSocket(config.coordinatorPort());
+    }
+
+    public List<Metric> run() throws IOException {
+        int count = config.workersCount();
+        logger.info("wait for {} workers on port {}", count, server.getLocalPort());
+        while (workers.size() < count) {
+            WorkerConnection worker = new WorkerConnection(workers.size(), server.accept());
+            logger.info("worker {} connected from {}", worker.id, worker.socket.getRemoteSocketAddress());
+            workers.add(worker);
+        }
+
+        for (WorkerConnection worker: workers) {
+            worker.sendConfig(argsOf(worker.id, count));
+        }
+        for (WorkerConnection worker: workers) {
+            ClusterProtocol.expect(worker.in, ClusterProtocol.READY);
+        }
+
+        for (WorkerConnection worker: workers) {
+            worker.syncClock();
+        }
+
+        long startAt = System.currentTimeMillis() + START_DELAY_MS;
+        for (WorkerConnection worker: workers) {
+            worker.sendStart(startAt);
+        }
+        logger.info("workers start at {}", Instant.ofEpochMilli(startAt));
+
+        List<List<Metric>> results = new ArrayList<>();
+        for (WorkerConnection worker: workers) {
+            try {
+                ClusterProtocol.expect(worker.in, ClusterProtocol.RESULT);
+                results.add(DistributedMetrics.read(worker.in));
+            } catch (IOException ex) {
+                logger.error("worker {} has no result, {}", worker.id, ex.getMessage());
+            }
+        }
+
+        List<Metric> metrics = new ArrayList<>();
+        metrics.add(new Metric("CLUSTER_WORKERS_COUNT", results.size()));
+        metrics.addAll(DistributedMetrics.merge(results));
+
+        DecimalFormat df = new DecimalFormat("0.#####");
+        metrics.forEach(m -> {
+            logger.info("metric {} = {}", m.name(), df.format(m.value()));
+        });
+
+        return metrics;
+    }
+
+    private List<String> argsOf(int workerId, int workersCount) {
+        List<String> args = new ArrayList<>(workerArgs);
+        if (config.rate() > 0) {
+            int rate = config.rate() / workersCount + (workerId < config.rate() % workersCount ? 1 : 0);
+            args.add("--rate");
+            args.add(String.valueOf(rate));
+        }
+        if (config.reportFile() != null) {
+            args.add("--report-file");
+            args.add(ClusterProtocol.workerFile(config.reportFile(), workerId));
+        }
+        AppConfig.Cmd cmd = config.cmd();
+        if (cmd == AppConfig.Cmd.LOAD || cmd == AppConfig.Cmd.SCAN || cmd == AppConfig.Cmd.MIXED) {
+            args.add("--shard");
+            args.add(String.valueOf(workerId));
+            args.add("--shards");
+            args.add(String.valueOf(workersCount));
+        }
+        return args;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (WorkerConnection worker: workers) {
+            worker.socket.close();
+        }
+        server.close();
+    }
+
+    private static class WorkerConnection {
+        private final int id;
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        // difference between clocks of worker and coordinator
+        private long clockOffsetMs = 0;
+
+        WorkerConnection(int id, Socket socket) throws IOException {
+            this.id = id;
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            ClusterProtocol.expect(in, ClusterProtocol.HELLO);
+            int version = in.readInt();
+            if (version != ClusterProtocol.VERSION) {
+                throw new IOException("worker " + id + " has unsupported protocol version " + version);
+            }
+        }
+
+        void sendConfig(List<String> args) throws IOException {
+            out.writeByte(ClusterProtocol.CONFIG);
+            out.writeInt(args.size());
+            for (String arg: args) {
+                out.writeUTF(arg);
+            }
+            out.flush();
+        }
+
+        // offset is estimated by the round with the shortest round trip
+        void syncClock() throws IOException {
+            long bestRtt = Long.MAX_VALUE;
+            for (int round = 0; round < CLOCK_SYNC_ROUNDS; round += 1) {
+                long sent = System.currentTimeMillis();
+                out.writeByte(ClusterProtocol.PING);
+                out.flush();
+                ClusterProtocol.expect(in, ClusterProtocol.PONG);
+                long workerTime = in.readLong();
+                long received = System.currentTimeMillis();
+
+                if (received - sent < bestRtt) {
+                    bestRtt = received - sent;
+                    clockOffsetMs = workerTime - (sent + received) / 2;
+                }
+            }
+            logger.info("worker {} clock offset is {} ms, round trip {} ms", id, clockOffsetMs, bestRtt);
+        }
+
+        void sendStart(long startAt) throws IOException {
+            out.writeByte(ClusterProtocol.START);
+            out.writeLong(startAt + clockOffsetMs);
+            out.flush();
+        }
+    }
+}
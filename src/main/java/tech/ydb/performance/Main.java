@@ -1,10 +1,16 @@
 package tech.ydb.performance;
 
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import tech.ydb.performance.api.Metric;
+import tech.ydb.performance.metrics.LiveMetrics;
+import tech.ydb.performance.metrics.MetricsHttpServer;
+
 /**
  *
  * @author Aleksandr Gorshenin
@@ -16,20 +22,75 @@ public class Main {
         logger.info("start app");
         AppConfig config = AppConfig.parseArgs(args);
 
-        if (config.scriptFile() != null) {
-            try (ScriptApp app = new ScriptApp(args, config.scriptFile())) {
+        if (config.metricsPort() > 0 || config.metricsJmx()) {
+            LiveMetrics.enable(config.metricsJmx());
+        }
+
+        MetricsHttpServer server = config.metricsPort() > 0 ? new MetricsHttpServer(config.metricsPort()) : null;
+        int exitCode;
+        try {
+            exitCode = run(args, config);
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+
+        logger.info("app finised");
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    private static int run(String[] args, AppConfig config) {
+        if (config.compareCurrent() != null) {
+            try {
+                return new CompareApp(config).run() ? 0 : 1;
+            } catch (Exception e) {
+                logger.error("compare app problem", e);
+                return 2;
+            }
+        }
+
+        if (config.workerAddress() != null) {
+            try (WorkerApp app = new WorkerApp(config.workerAddress())) {
+                app.run();
+            } catch (Exception e) {
+                logger.error("worker app problem", e);
+            }
+        } else if (config.coordinatorPort() > 0) {
+            try (CoordinatorApp app = new CoordinatorApp(args, config)) {
+                writeResult(config, "distributed, " + config.workersCount() + " workers", app.run());
+            } catch (Exception e) {
+                logger.error("coordinator app problem", e);
+            }
+        } else if (config.saturationKnob() != null) {
+            try (SaturationApp app = new SaturationApp(args, config)) {
+                writeResult(config, app.runtimeVersion(), app.run());
+            } catch (Exception e) {
+                logger.error("saturation app problem", e);
+            }
+        } else if (config.scriptFile() != null) {
+            try (ScriptApp app = new ScriptApp(args, config)) {
                 app.run();
             } catch (Exception e) {
                 logger.error("script app problem", e);
             }
         } else {
             try (SimpleApp app = new SimpleApp(config)) {
-                app.run();
+                writeResult(config, app.runtimeVersion(), app.run());
             } catch (Exception e) {
                 logger.error("simple app problem", e);
             }
         }
+        return 0;
+    }
 
-        logger.info("app finised");
+    private static void writeResult(AppConfig config, String runtimeVersion, List<Metric> metrics)
+            throws IOException {
+        if (config.resultFile() != null) {
+            ResultFile.of(config, runtimeVersion, metrics).write(Paths.get(config.resultFile()));
+            logger.info("result is written to {}", config.resultFile());
+        }
     }
 }
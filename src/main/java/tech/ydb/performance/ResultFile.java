@@ -0,0 +1,204 @@
+package tech.ydb.performance;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import tech.ydb.performance.api.Metric;
+
+/**
+ * JSON file with metrics of the run and its metadata: time, host, versions and arguments.
+ * The file is written and parsed without external libraries, parser supports only this format.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class ResultFile {
+    private static final DecimalFormat DF = new DecimalFormat("0.#####", DecimalFormatSymbols.getInstance(Locale.ROOT));
+
+    private final Map<String, String> metadata;
+    private final Map<String, Double> metrics;
+
+    private ResultFile(Map<String, String> metadata, Map<String, Double> metrics) {
+        this.metadata = metadata;
+        this.metrics = metrics;
+    }
+
+    public Map<String, String> metadata() {
+        return metadata;
+    }
+
+    public Map<String, Double> metrics() {
+        return metrics;
+    }
+
+    public static ResultFile of(AppConfig config, String runtimeVersion, List<Metric> metrics) {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("timestamp", Instant.now().toString());
+        metadata.put("host", hostName());
+        metadata.put("java", System.getProperty("java.version"));
+        String appVersion = ResultFile.class.getPackage().getImplementationVersion();
+        metadata.put("app", appVersion != null ? appVersion : "unknown");
+        metadata.put("runtime", runtimeVersion);
+        metadata.put("endpoint", config.endpoint());
+        metadata.put("cmd", config.cmd().name());
+        metadata.put("args", String.join(" ", config.arguments()));
+
+        Map<String, Double> values = new LinkedHashMap<>();
+        metrics.forEach(m -> values.put(m.name(), m.value()));
+        return new ResultFile(metadata, values);
+    }
+
+    public void write(Path path) throws IOException {
+        StringBuilder json = new StringBuilder("{\n  \"metadata\": {");
+        String sep = "\n";
+        for (Map.Entry<String, String> e: metadata.entrySet()) {
+            json.append(sep).append("    ").append(quote(e.getKey())).append(": ").append(quote(e.getValue()));
+            sep = ",\n";
+        }
+        json.append("\n  },\n  \"metrics\": {");
+        sep = "\n";
+        for (Map.Entry<String, Double> e: metrics.entrySet()) {
+            json.append(sep).append("    ").append(quote(e.getKey())).append(": ").append(number(e.getValue()));
+            sep = ",\n";
+        }
+        json.append("\n  }\n}\n");
+        Files.write(path, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ResultFile read(Path path) throws IOException {
+        Parser parser = new Parser(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+        Map<String, String> metadata = new LinkedHashMap<>();
+        Map<String, Double> metrics = new LinkedHashMap<>();
+
+        parser.expect('{');
+        while (!parser.tryNext('}')) {
+            String section = parser.string();
+            parser.expect(':');
+            parser.expect('{');
+            while (!parser.tryNext('}')) {
+                String key = parser.string();
+                parser.expect(':');
+                if ("metrics".equals(section)) {
+                    if (!parser.tryNull()) {
+                        metrics.put(key, parser.number());
+                    }
+                } else {
+                    metadata.put(key, parser.tryNull() ? null : parser.string());
+                }
+                parser.tryNext(',');
+            }
+            parser.tryNext(',');
+        }
+        return new ResultFile(metadata, metrics);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            return "unknown";
+        }
+    }
+
+    // JSON has no NaN and infinity values
+    static String number(double value) {
+        return Double.isFinite(value) ? DF.format(value) : "null";
+    }
+
+    static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder("\"");
+        for (char ch: value.toCharArray()) {
+            if (ch == '"' || ch == '\\') {
+                sb.append('\\').append(ch);
+            } else if (ch < 0x20) {
+                sb.append(String.format("\\u%04x", (int) ch));
+            } else {
+                sb.append(ch);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static class Parser {
+        private final String text;
+        private int pos = 0;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        private void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos += 1;
+            }
+        }
+
+        boolean tryNext(char ch) {
+            skipSpaces();
+            if (pos < text.length() && text.charAt(pos) == ch) {
+                pos += 1;
+                return true;
+            }
+            return false;
+        }
+
+        boolean tryNull() {
+            skipSpaces();
+            if (text.startsWith("null", pos)) {
+                pos += 4;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char ch) throws IOException {
+            if (!tryNext(ch)) {
+                throw new IOException("Wrong result file, expected '" + ch + "' at position " + pos);
+            }
+        }
+
+        String string() throws IOException {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (pos < text.length() && text.charAt(pos) != '"') {
+                char ch = text.charAt(pos++);
+                if (ch == '\\' && pos < text.length()) {
+                    ch = text.charAt(pos++);
+                    if (ch == 'u') {
+                        ch = (char) Integer.parseInt(text.substring(pos, pos + 4), 16);
+                        pos += 4;
+                    }
+                }
+                sb.append(ch);
+            }
+            expect('"');
+            return sb.toString();
+        }
+
+        double number() throws IOException {
+            skipSpaces();
+            int start = pos;
+            while (pos < text.length() && "+-.eE0123456789".indexOf(text.charAt(pos)) >= 0) {
+                pos += 1;
+            }
+            try {
+                return Double.parseDouble(text.substring(start, pos));
+            } catch (NumberFormatException ex) {
+                throw new IOException("Wrong result file, expected number at position " + start);
+            }
+        }
+    }
+}
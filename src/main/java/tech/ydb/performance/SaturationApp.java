@@ -0,0 +1,185 @@
+package tech.ydb.performance;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.performance.api.Metric;
+import tech.ydb.performance.api.YdbRuntime;
+
+/**
+ * Searches the max count of threads or the max target rate which satisfies the latency and error rate SLO.
+ * The value is doubled until SLO is violated, then the knee is refined by binary search. Every probe is
+ * the workload run with a short warmup run before it, all probes share one runtime.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class SaturationApp implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SaturationApp.class);
+
+    // open loop probe is failed if the achieved rate is less than this part of the target
+    private static final double MIN_RATE_RATIO = 0.95d;
+
+    private final String[] baseArgs;
+    private final AppConfig config;
+    private final AppConfig.SaturationKnob knob;
+    private final String sloMetric;
+    private final YdbRuntime ydb;
+    private final List<Probe> probes = new ArrayList<>();
+
+    public SaturationApp(String[] args, AppConfig config) {
+        this.baseArgs = args;
+        this.config = config;
+        this.knob = config.saturationKnob();
+        if (config.sloMetric() != null) {
+            this.sloMetric = config.sloMetric();
+        } else {
+            this.sloMetric = knob == AppConfig.SaturationKnob.RATE
+                    ? "REQUEST_CORRECTED_OK_P99_MS"
+                    : "READ_DATA_OK_P99_MS";
+        }
+
+        // session pool is sized by the max count of threads of all probes
+        long maxThreads = knob == AppConfig.SaturationKnob.THREADS ? config.saturationMax() : config.threadsCount();
+        String threads = String.valueOf(maxThreads);
+        this.ydb = AppFactory.createYdbRuntime(probeConfig("-t", threads));
+    }
+
+    public List<Metric> run() {
+        logger.info("search max {} with {} <= {} ms and error rate <= {}", knob, sloMetric,
+                config.sloP99Ms(), config.sloErrorRate());
+
+        long lo = 0;
+        long hi = 0;
+        for (long value = Math.max(1, config.saturationFrom()); value <= config.saturationMax(); value *= 2) {
+            if (!probe(value).passed) {
+                hi = value;
+                break;
+            }
+            lo = value;
+        }
+
+        if (lo > 0 && hi > 0) {
+            // precision of the search is 5% of the value
+            while (hi - lo > Math.max(1, lo / 20)) {
+                long mid = (lo + hi) / 2;
+                if (probe(mid).passed) {
+                    lo = mid;
+                } else {
+                    hi = mid;
+                }
+            }
+        }
+
+        final long knee = lo;
+        Probe kneeProbe = probes.stream().filter(p -> p.value == knee).findFirst().orElse(null);
+        if (kneeProbe == null) {
+            logger.warn("SLO is violated by the first probe");
+        } else if (hi == 0) {
+            logger.warn("SLO isn't violated up to {} {}", config.saturationMax(), knob);
+        }
+
+        StringBuilder csv = new StringBuilder("value;throughput;slo_ms;error_rate;passed\n");
+        DecimalFormat df = new DecimalFormat("0.#####");
+        probes.stream().sorted((p1, p2) -> Long.compare(p1.value, p2.value)).forEach(p -> {
+            csv.append(p.value).append(";").append(df.format(p.throughput)).append(";")
+                    .append(df.format(p.sloMs)).append(";").append(df.format(p.errorRate)).append(";")
+                    .append(p.passed).append("\n");
+        });
+        logger.info("saturation curve\n{}", csv);
+
+        List<Metric> metrics = new ArrayList<>(Arrays.asList(
+                new Metric("SATURATION_KNEE_" + knob.name(), knee),
+                new Metric("SATURATION_KNEE_PER_SECOND", kneeProbe != null ? kneeProbe.throughput : 0),
+                new Metric("SATURATION_KNEE_SLO_MS", kneeProbe != null ? kneeProbe.sloMs : 0),
+                new Metric("SATURATION_PROBES_COUNT", probes.size())
+        ));
+        for (int idx = 0; idx < probes.size(); idx += 1) {
+            Probe p = probes.get(idx);
+            String prefix = String.format("SATURATION_PROBE_%03d_", idx);
+            metrics.add(new Metric(prefix + knob.name(), p.value));
+            metrics.add(new Metric(prefix + "PER_SECOND", p.throughput));
+            metrics.add(new Metric(prefix + "SLO_MS", p.sloMs));
+            metrics.add(new Metric(prefix + "ERROR_RATE", p.errorRate));
+        }
+
+        metrics.forEach(m -> {
+            logger.info("metric {} = {}", m.name(), df.format(m.value()));
+        });
+        return metrics;
+    }
+
+    private Probe probe(long value) {
+        String option = knob == AppConfig.SaturationKnob.RATE ? "--rate" : "-t";
+        if (config.saturationWarmupSeconds() > 0) {
+            logger.info("warmup probe {} {}", option, value);
+            AppConfig warmup = probeConfig(option, String.valueOf(value),
+                    "-d", String.valueOf(config.saturationWarmupSeconds()));
+            try (SimpleApp app = new SimpleApp(warmup, ydb)) {
+                app.run();
+            }
+        }
+
+        logger.info("run probe {} {}", option, value);
+        List<Metric> result;
+        try (SimpleApp app = new SimpleApp(probeConfig(option, String.valueOf(value)), ydb)) {
+            result = app.run();
+        }
+
+        Probe probe = new Probe(value, result.stream().collect(Collectors.toMap(Metric::name, Metric::value,
+                (v1, v2) -> v2)));
+        DecimalFormat df = new DecimalFormat("0.###");
+        logger.info("probe {} {}: {} per second, {} = {} ms, error rate {}, {}", option, value,
+                df.format(probe.throughput), sloMetric, df.format(probe.sloMs), df.format(probe.errorRate),
+                probe.passed ? "passed" : "failed");
+        probes.add(probe);
+        return probe;
+    }
+
+    private AppConfig probeConfig(String... extraArgs) {
+        String[] args = Arrays.copyOf(baseArgs, baseArgs.length + extraArgs.length);
+        System.arraycopy(extraArgs, 0, args, baseArgs.length, extraArgs.length);
+        return AppConfig.parseArgs(args);
+    }
+
+    public String runtimeVersion() {
+        return ydb.version();
+    }
+
+    @Override
+    public void close() {
+        ydb.close();
+    }
+
+    private class Probe {
+        private final long value;
+        private final double throughput;
+        private final double sloMs;
+        private final double errorRate;
+        private final boolean passed;
+
+        Probe(long value, Map<String, Double> metrics) {
+            Function<String, Double> get = name -> metrics.getOrDefault(name, 0d);
+            // errors are counted by the request metric of SLO metric, i.e. READ_DATA_ for READ_DATA_OK_P99_MS
+            String prefix = sloMetric.contains("_OK_") ? sloMetric.substring(0, sloMetric.indexOf("_OK_") + 1) : "";
+            double oks = get.apply(prefix + "OK_TOTAL_COUNT");
+            double errors = get.apply(prefix + "ERROR_TOTAL_COUNT");
+
+            this.value = value;
+            this.throughput = get.apply("REQUESTS_COUNT_PER_SECOND");
+            this.sloMs = get.apply(sloMetric);
+            this.errorRate = oks + errors > 0 ? errors / (oks + errors) : 0;
+
+            boolean ratePassed = knob != AppConfig.SaturationKnob.RATE || throughput >= MIN_RATE_RATIO * value;
+            this.passed = metrics.containsKey(sloMetric) && oks > 0 && sloMs <= config.sloP99Ms()
+                    && errorRate <= config.sloErrorRate() && ratePassed;
+        }
+    }
+}
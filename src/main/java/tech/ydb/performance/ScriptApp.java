@@ -3,148 +3,210 @@ package tech.ydb.performance;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Scanner;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import tech.ydb.performance.api.Metric;
+import tech.ydb.performance.api.YdbRuntime;
 
 
 
 /**
+ * Runs steps of the script file, every line adds its options to the base options. Values like 1..256x2
+ * or 100..500+100 are swept, such line generates a step for every combination of values. Steps with
+ * the same endpoint and SDK share one runtime.
  *
  * @author Aleksandr Gorshenin
  */
 public class ScriptApp implements AutoCloseable {
     private static final Logger logger = LoggerFactory.getLogger(ScriptApp.class);
 
-    private static final DecimalFormat DF = new DecimalFormat("0.#####");
-    private static final String[] COLUMNS = {
-        "REQUESTS_TOTAL_COUNT",
-        "REQUESTS_TOTAL_MS",
-        "REQUESTS_COUNT_PER_SECOND",
-        "GET_SESSION_OK_TOTAL_COUNT",
-        "GET_SESSION_OK_TOTAL_MS",
-        "GET_SESSION_OK_AVG_MS",
-        "GET_SESSION_OK_MIN_MS",
-        "GET_SESSION_OK_MAX_MS",
-        "READ_DATA_OK_TOTAL_COUNT",
-        "READ_DATA_OK_TOTAL_MS",
-        "READ_DATA_OK_AVG_MS",
-        "READ_DATA_OK_MIN_MS",
-        "READ_DATA_OK_MAX_MS"
-    };
+    private static final DecimalFormat DF = new DecimalFormat("0.#####", DecimalFormatSymbols.getInstance(Locale.ROOT));
+    private static final Pattern SWEEP = Pattern.compile("(\\d+)\\.\\.(\\d+)(?:([x+])(\\d+))?");
+    private static final List<String> STEP_COLUMNS = Arrays.asList("step", "label", "args");
 
     private final String[] baseArgs;
+    private final String resultFile;
     private final Scanner scanner;
+    private final Map<String, YdbRuntime> runtimes = new HashMap<>();
 
-    public ScriptApp(String[] args, String scriptFile) throws FileNotFoundException {
+    public ScriptApp(String[] args, AppConfig config) throws FileNotFoundException {
         this.baseArgs = args;
-        this.scanner = new Scanner(new File(scriptFile));
+        this.resultFile = config.scriptResult();
+        this.scanner = new Scanner(new File(config.scriptFile()));
     }
 
     public void run() {
-        List<Step> steps = new ArrayList<>();
+        List<ValuesStep> steps = new ArrayList<>();
+        String label = "";
 
         while (scanner.hasNext()) {
             String line = scanner.nextLine();
-            if (line == null || line.isEmpty()) {
+            if (line == null || line.trim().isEmpty()) {
                 continue;
             }
 
             if (line.startsWith("label:")) {
-                steps.add(new LabelStep(line));
+                label = line.substring(6); // remove prefix label:
             } else {
-                steps.add(new ValuesStep(line));
+                for (List<String> extraArgs: expandSweeps(Arrays.asList(line.trim().split("\\s+")))) {
+                    steps.add(new ValuesStep(steps.size() + 1, label, extraArgs));
+                }
             }
         }
 
-        steps.forEach(Step::run);
-
-        StringBuilder csv = new StringBuilder();
+        // session pool of the shared runtime is sized by the step with the max count of threads
+        Map<String, AppConfig> runtimeConfigs = new HashMap<>();
+        for (ValuesStep step: steps) {
+            runtimeConfigs.merge(step.config.runtimeKey(), step.config,
+                    (c1, c2) -> c1.threadsCount() >= c2.threadsCount() ? c1 : c2);
+        }
 
-        for (String column: COLUMNS) {
-            csv.append(column).append(";");
+        logger.info("run {} steps with {} runtimes", steps.size(), runtimeConfigs.size());
+        for (ValuesStep step: steps) {
+            YdbRuntime ydb = runtimes.computeIfAbsent(step.config.runtimeKey(),
+                    key -> AppFactory.createYdbRuntime(runtimeConfigs.get(key)));
+            step.run(ydb);
         }
-        csv.append("\n");
-        steps.forEach(s -> s.write(csv));
 
-        logger.info("exported CSV\n{}", csv.toString());
+        writeResult(steps);
     }
 
     @Override
     public void close() {
         this.scanner.close();
+        runtimes.values().forEach(YdbRuntime::close);
+        runtimes.clear();
     }
 
-    private interface Step extends Runnable {
-        void write(StringBuilder sb);
+    static List<List<String>> expandSweeps(List<String> args) {
+        List<List<String>> lines = Collections.singletonList(Collections.emptyList());
+        for (String arg: args) {
+            List<String> values = expandValue(arg);
+            List<List<String>> expanded = new ArrayList<>();
+            for (List<String> line: lines) {
+                for (String value: values) {
+                    List<String> next = new ArrayList<>(line);
+                    next.add(value);
+                    expanded.add(next);
+                }
+            }
+            lines = expanded;
+        }
+        return lines;
     }
 
-    private class LabelStep implements Step {
-        private final String label;
-
-        public LabelStep(String line) {
-            this.label = line.substring(6); // remove prefix label:
+    // both forms 1..8x2 and --threads=1..8x2 are supported
+    private static List<String> expandValue(String arg) {
+        int eq = arg.indexOf('=');
+        String prefix = eq >= 0 ? arg.substring(0, eq + 1) : "";
+        Matcher m = SWEEP.matcher(arg.substring(prefix.length()));
+        if (!m.matches()) {
+            return Collections.singletonList(arg);
         }
 
-        @Override
-        public void write(StringBuilder sb) {
-            sb.append(label).append("\n");
+        long from = Long.parseLong(m.group(1));
+        long to = Long.parseLong(m.group(2));
+        boolean geometric = "x".equals(m.group(3));
+        long step = m.group(4) != null ? Long.parseLong(m.group(4)) : 1;
+        if (from > to || step < 1 || (geometric && (step < 2 || from < 1))) {
+            throw new IllegalArgumentException("Wrong sweep " + arg);
         }
 
-        @Override
-        public void run() {
+        List<String> values = new ArrayList<>();
+        for (long value = from; value <= to; value = geometric ? value * step : value + step) {
+            values.add(prefix + value);
         }
+        return values;
     }
 
-    private class ValuesStep implements Step {
-        private final double[] values = new double[COLUMNS.length];
-        private final String[] args;
+    private void writeResult(List<ValuesStep> steps) {
+        Set<String> metricNames = new LinkedHashSet<>();
+        steps.forEach(s -> metricNames.addAll(s.metrics.keySet()));
+
+        boolean json = resultFile != null && !resultFile.endsWith(".csv");
+        StringBuilder csv = new StringBuilder();
+        StringBuilder lines = new StringBuilder();
+
+        csv.append(String.join(";", STEP_COLUMNS)).append(";").append(String.join(";", metricNames)).append("\n");
+        for (ValuesStep step: steps) {
+            csv.append(step.number).append(";").append(step.label).append(";").append(step.args).append(";");
+            for (String name: metricNames) {
+                Double value = step.metrics.get(name);
+                csv.append(value != null ? DF.format(value) : "").append(";");
+            }
+            csv.append("\n");
+
+            lines.append("{\"step\":").append(step.number)
+                    .append(",\"label\":").append(ResultFile.quote(step.label))
+                    .append(",\"args\":").append(ResultFile.quote(step.args));
+            step.metrics.forEach((name, value) -> {
+                lines.append(",").append(ResultFile.quote(name)).append(":").append(ResultFile.number(value));
+            });
+            lines.append("}\n");
+        }
 
-        public ValuesStep(String line) {
-            String[] extraArgs = line.split("\\s+");
+        logger.info("exported CSV\n{}", csv.toString());
 
-            this.args = new String[baseArgs.length + extraArgs.length];
-            System.arraycopy(baseArgs, 0, args, 0, baseArgs.length);
-            System.arraycopy(extraArgs, 0, args, baseArgs.length, extraArgs.length);
+        if (resultFile == null) {
+            return;
         }
 
-        @Override
-        public void run() {
-            try (SimpleApp app = new SimpleApp(AppConfig.parseArgs(args))) {
-                logger.info("run next app");
-
-                Map<String, Double> appMetrics = app.run().stream()
-                        .collect(Collectors.toMap(Metric::name, Metric::value));
-
-                for (int idx = 0; idx < COLUMNS.length; idx += 1) {
-                    Double v = appMetrics.remove(COLUMNS[idx]);
-                    if (v == null) {
-                        logger.warn("empty metric {}, put zero", COLUMNS[idx]);
-                        v = 0d;
-                    }
-                    values[idx] = v;
-                }
+        try (Writer writer = Files.newBufferedWriter(Paths.get(resultFile), StandardCharsets.UTF_8)) {
+            writer.write(json ? lines.toString() : csv.toString());
+            logger.info("script result is written to {}", resultFile);
+        } catch (IOException ex) {
+            logger.error("can't write script result {}", resultFile, ex);
+        }
+    }
 
-                for (String metricName: appMetrics.keySet()) {
-                    logger.warn("not used metric {}", metricName);
-                }
-            }
+    private class ValuesStep {
+        private final int number;
+        private final String label;
+        private final String args;
+        private final AppConfig config;
+        private final Map<String, Double> metrics = new LinkedHashMap<>();
+
+        ValuesStep(int number, String label, List<String> extraArgs) {
+            this.number = number;
+            this.label = label;
+            this.args = String.join(" ", extraArgs);
+
+            List<String> all = new ArrayList<>(Arrays.asList(baseArgs));
+            all.addAll(extraArgs);
+            this.config = AppConfig.parseArgs(all.toArray(new String[0]));
         }
 
-        @Override
-        public void write(StringBuilder sb) {
-            for (double v: values) {
-                sb.append(DF.format(v)).append(";");
+        void run(YdbRuntime ydb) {
+            logger.info("run step {}: {}", number, args);
+            try (SimpleApp app = new SimpleApp(config, ydb)) {
+                for (Metric metric: app.run()) {
+                    metrics.put(metric.name(), metric.value());
+                }
+            } catch (RuntimeException ex) {
+                logger.error("step {} failed", number, ex);
             }
-            sb.append("\n");
         }
     }
 }
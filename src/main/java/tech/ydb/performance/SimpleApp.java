@@ -19,10 +19,21 @@ public class SimpleApp implements AutoCloseable {
 
     private final AppConfig config;
     private final YdbRuntime ydb;
+    private final boolean ownsRuntime;
 
     public SimpleApp(AppConfig config) {
         this.config = config;
         this.ydb = AppFactory.createYdbRuntime(config);
+        this.ownsRuntime = true;
+    }
+
+    /**
+     * App with the shared runtime, the runtime isn't closed by the app
+     */
+    public SimpleApp(AppConfig config, YdbRuntime ydb) {
+        this.config = config;
+        this.ydb = ydb;
+        this.ownsRuntime = false;
     }
 
     public List<Metric> run() {
@@ -37,8 +48,14 @@ public class SimpleApp implements AutoCloseable {
         return workload.metrics();
     }
 
+    public String runtimeVersion() {
+        return ydb.version();
+    }
+
     @Override
     public void close() {
-        ydb.close();
+        if (ownsRuntime) {
+            ydb.close();
+        }
     }
 }
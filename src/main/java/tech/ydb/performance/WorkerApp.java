@@ -0,0 +1,144 @@
+package tech.ydb.performance;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.text.DecimalFormat;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.performance.api.Metric;
+import tech.ydb.performance.api.Workload;
+import tech.ydb.performance.api.YdbRuntime;
+import tech.ydb.performance.metrics.DistributedMetrics;
+
+/**
+ * Receives the config from the coordinator, runs the workload at the given time and sends metrics back
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class WorkerApp implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(WorkerApp.class);
+
+    // workers may be started before the coordinator
+    private static final long CONNECT_TIMEOUT_MS = 60_000;
+    private static final long CONNECT_RETRY_MS = 500;
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    public WorkerApp(String address) throws IOException, InterruptedException {
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Coordinator address must be host:port, but got " + address);
+        }
+        this.socket = connect(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    public List<Metric> run() throws IOException, InterruptedException {
+        out.writeByte(ClusterProtocol.HELLO);
+        out.writeInt(ClusterProtocol.VERSION);
+        out.flush();
+
+        ClusterProtocol.expect(in, ClusterProtocol.CONFIG);
+        String[] args = new String[in.readInt()];
+        for (int idx = 0; idx < args.length; idx += 1) {
+            args[idx] = in.readUTF();
+        }
+        logger.info("got config {}", String.join(" ", args));
+
+        boolean replied = false;
+        try {
+            AppConfig config = AppConfig.parseArgs(args);
+            try (YdbRuntime ydb = AppFactory.createYdbRuntime(config)) {
+                Workload workload = AppFactory.createWorkload(config, ydb);
+                out.writeByte(ClusterProtocol.READY);
+                out.flush();
+
+                awaitStart();
+                workload.run();
+
+                List<Metric> metrics = workload.metrics();
+                DecimalFormat df = new DecimalFormat("0.#####");
+                metrics.forEach(m -> {
+                    logger.info("metric {} = {}", m.name(), df.format(m.value()));
+                });
+
+                replied = true;
+                out.writeByte(ClusterProtocol.RESULT);
+                DistributedMetrics.write(out, metrics);
+                out.flush();
+                return metrics;
+            }
+        } catch (Exception | Error ex) {
+            // coordinator waits for the reply, so any failure before the result is reported
+            if (!replied) {
+                sendFailed(ex);
+            }
+            throw ex;
+        }
+    }
+
+    private void sendFailed(Throwable error) {
+        try {
+            out.writeByte(ClusterProtocol.FAILED);
+            out.writeUTF(String.valueOf(error.getMessage()));
+            out.flush();
+        } catch (IOException ex) {
+            error.addSuppressed(ex);
+        }
+    }
+
+    private void awaitStart() throws IOException, InterruptedException {
+        while (true) {
+            byte type = in.readByte();
+            if (type == ClusterProtocol.PING) {
+                out.writeByte(ClusterProtocol.PONG);
+                out.writeLong(System.currentTimeMillis());
+                out.flush();
+                continue;
+            }
+
+            if (type != ClusterProtocol.START) {
+                throw new IOException("unexpected message " + type + ", expected " + ClusterProtocol.START);
+            }
+
+            long startAt = in.readLong();
+            long delay = startAt - System.currentTimeMillis();
+            logger.info("start workload in {} ms", delay);
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            return;
+        }
+    }
+
+    private static Socket connect(String host, int port) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MS;
+        while (true) {
+            try {
+                return new Socket(host, port);
+            } catch (ConnectException ex) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw ex;
+                }
+                logger.info("coordinator {}:{} is not available, retry", host, port);
+                Thread.sleep(CONNECT_RETRY_MS);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
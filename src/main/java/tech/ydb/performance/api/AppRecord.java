@@ -1,15 +1,33 @@
 package tech.ydb.performance.api;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.Random;
 import java.util.UUID;
 
 /**
+ * Record of the test table. Payload array is never modified after creation, so runtimes may pass it
+ * to the SDK values without copying.
  *
  * @author Aleksandr Gorshenin
  */
 public class AppRecord {
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONGS_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final long SEED = 0x27D4EB2F165667C5L;
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+
+    // generators are reused to avoid allocation of Random and MessageDigest for every record
+    private static final ThreadLocal<Generator> GENERATOR = ThreadLocal.withInitial(Generator::new);
+
     private final String uuid;
     private final byte[] payload;
 
@@ -45,12 +63,74 @@ public class AppRecord {
     }
 
     public static AppRecord createByIndex(long index, int recordSize) {
-        Random rnd = new Random(index * 31 + 21);
+        return GENERATOR.get().create(index, recordSize);
+    }
+
+    /**
+     * Generates payload of the record without formatting of the uuid string, it is used to build key indexes
+     * @param index index of record
+     * @param payload buffer for the payload, its length is the record size
+     * @return uuid of the record
+     */
+    public static UUID createPayload(long index, byte[] payload) {
+        return GENERATOR.get().fill(index, payload);
+    }
 
-        byte[] payload = new byte[recordSize];
-        rnd.nextBytes(payload);
-        UUID uuid = UUID.nameUUIDFromBytes(payload);
+    /**
+     * Fast non-cryptographic 64-bit hash of the payload, it is used for cheap verification of read records
+     * @param payload payload of record
+     * @return checksum of payload
+     */
+    public static long checksum(byte[] payload) {
+        long hash = SEED ^ (payload.length * PRIME_1);
+        int idx = 0;
+        for (; idx + 8 <= payload.length; idx += 8) {
+            long value = (long)LONGS.get(payload, idx);
+            hash = Long.rotateLeft(hash ^ (Long.rotateLeft(value * PRIME_2, 31) * PRIME_1), 27) * PRIME_1 + PRIME_3;
+        }
+        for (; idx < payload.length; idx += 1) {
+            hash = Long.rotateLeft(hash ^ ((payload[idx] & 0xFF) * PRIME_4), 11) * PRIME_1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        return hash ^ (hash >>> 32);
+    }
 
-        return new AppRecord(uuid.toString(), payload);
+    /**
+     * Generates the same records as {@code new Random(index * 31 + 21)} and {@link UUID#nameUUIDFromBytes}
+     */
+    private static class Generator {
+        private final Random rnd = new Random();
+        private final MessageDigest md5;
+
+        Generator() {
+            try {
+                md5 = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new InternalError("MD5 not supported", ex);
+            }
+        }
+
+        AppRecord create(long index, int recordSize) {
+            byte[] payload = new byte[recordSize];
+            return new AppRecord(fill(index, payload).toString(), payload);
+        }
+
+        UUID fill(long index, byte[] payload) {
+            rnd.setSeed(index * 31 + 21);
+            rnd.nextBytes(payload);
+
+            // name based uuid of version 3
+            byte[] hash = md5.digest(payload);
+            hash[6] = (byte) ((hash[6] & 0x0f) | 0x30);
+            hash[8] = (byte) ((hash[8] & 0x3f) | 0x80);
+            long msb = (long) LONGS_BE.get(hash, 0);
+            long lsb = (long) LONGS_BE.get(hash, 8);
+
+            return new UUID(msb, lsb);
+        }
     }
 }
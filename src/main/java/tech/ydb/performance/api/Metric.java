@@ -5,12 +5,29 @@ package tech.ydb.performance.api;
  * @author Aleksandr Gorshenin
  */
 public class Metric {
+    /**
+     * Rule of merging of values reported by several instances of distributed run
+     */
+    public enum Aggregation {
+        SUM,
+        MAX,
+        AVG,
+        // value doesn't depend on the instance, the first one is taken
+        SAME,
+    }
+
     private final String name;
     private final double value;
+    private final Aggregation aggregation;
 
     public Metric(String name, double value) {
+        this(name, value, Aggregation.AVG);
+    }
+
+    public Metric(String name, double value, Aggregation aggregation) {
         this.name = name;
         this.value = value;
+        this.aggregation = aggregation;
     }
 
     public String name() {
@@ -20,4 +37,8 @@ public class Metric {
     public double value() {
         return value;
     }
+
+    public Aggregation aggregation() {
+        return aggregation;
+    }
 }
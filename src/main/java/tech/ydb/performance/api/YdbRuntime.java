@@ -8,9 +8,63 @@ import java.util.concurrent.CompletableFuture;
  * @author Aleksandr Gorshenin
  */
 public interface YdbRuntime extends AutoCloseable {
+    public enum QueryMode {
+        /** query text is sent with every request */
+        TEXT,
+        /** query text is sent with every request and kept in the server query cache */
+        CACHED,
+        /** read query is prepared once per session and executed by the prepared handle */
+        PREPARED,
+    }
+
+    public enum ScanMode {
+        READ_TABLE,
+        SCAN_QUERY,
+    }
+
+    /**
+     * Receives rows of streaming scan as soon as result parts arrive, calls are never concurrent
+     */
+    public interface ScanConsumer {
+        public void accept(String uuid, byte[] payload);
+    }
+
     public interface YdbSession extends AutoCloseable  {
+        /**
+         * Prepares read query for this session, completes immediately if the query is already prepared
+         * or the query mode doesn't need preparing
+         * @return future with false if query can't be prepared
+         */
+        public CompletableFuture<Boolean> prepareRead();
+
+        /**
+         * @return true if read query is already prepared or doesn't need preparing, in this case there is
+         * no reason to call prepareRead and to measure it
+         */
+        public boolean isReadPrepared();
+
+        /**
+         * @param uuid key of record
+         * @return future with record, fails if read query must be prepared by prepareRead first
+         */
         public CompletableFuture<AppRecord> read(String uuid);
 
+        public CompletableFuture<List<AppRecord>> readBatch(List<String> uuids);
+
+        public CompletableFuture<Boolean> upsert(AppRecord record);
+
+        /**
+         * Updates payload of the existing record, absent record isn't created
+         * @param record record with new payload
+         * @return future with false if the request failed
+         */
+        public CompletableFuture<Boolean> update(AppRecord record);
+
+        /**
+         * @return true if the session got BAD_SESSION or SESSION_BUSY like status and must not be reused
+         */
+        public boolean isBroken();
+
         @Override
         public void close();
     }
@@ -21,6 +75,21 @@ public interface YdbRuntime extends AutoCloseable {
 
     public CompletableFuture<Boolean> bulkUpsert(List<AppRecord> records);
 
+    /**
+     * Streams records with uuid in range [fromUuid, toUuid) in arbitrary order
+     * @param mode ReadTable or scan query
+     * @param fromUuid inclusive left bound
+     * @param toUuid exclusive right bound or null for the end of table
+     * @param consumer consumer of rows
+     * @return future with false if the stream is failed
+     */
+    public CompletableFuture<Boolean> scan(ScanMode mode, String fromUuid, String toUuid, ScanConsumer consumer);
+
+    /**
+     * @return name and version of SDK, it's saved to the result file
+     */
+    public String version();
+
     @Override
     public void close();
 }
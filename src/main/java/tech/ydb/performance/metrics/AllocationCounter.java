@@ -0,0 +1,54 @@
+package tech.ydb.performance.metrics;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Heap allocations of the current thread, available on HotSpot based JVMs
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class AllocationCounter {
+    private static final com.sun.management.ThreadMXBean THREADS = threadsBean();
+
+    private AllocationCounter() { }
+
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * @return count of bytes allocated by the current thread or zero if it isn't supported
+     */
+    public static long currentThreadAllocatedBytes() {
+        if (THREADS == null) {
+            return 0;
+        }
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return HotSpot threads bean with enabled allocations and CPU time if it's supported or null
+     */
+    static com.sun.management.ThreadMXBean threads() {
+        return THREADS;
+    }
+
+    private static com.sun.management.ThreadMXBean threadsBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        if (!threads.isThreadAllocatedMemoryEnabled()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        if (threads.isThreadCpuTimeSupported() && !threads.isThreadCpuTimeEnabled()) {
+            threads.setThreadCpuTimeEnabled(true);
+        }
+        return threads;
+    }
+}
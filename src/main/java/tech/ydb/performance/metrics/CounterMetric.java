@@ -16,15 +16,19 @@ public class CounterMetric {
         count += 1;
     }
 
+    long count() {
+        return count;
+    }
+
     void merge(CounterMetric other) {
         this.count += other.count;
     }
 
     public List<Metric> toMetrics(long ms, String prefix) {
         return Arrays.asList(
-                new Metric(prefix + "TOTAL_COUNT", count),
-                new Metric(prefix + "TOTAL_MS", ms),
-                new Metric(prefix + "COUNT_PER_SECOND", 1000d * count / ms)
+                new Metric(prefix + "TOTAL_COUNT", count, Metric.Aggregation.SUM),
+                new Metric(prefix + "TOTAL_MS", ms, Metric.Aggregation.MAX),
+                new Metric(prefix + "COUNT_PER_SECOND", 1000d * count / ms, Metric.Aggregation.SUM)
         );
     }
 }
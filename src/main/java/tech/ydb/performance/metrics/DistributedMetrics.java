@@ -0,0 +1,145 @@
+package tech.ydb.performance.metrics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import tech.ydb.performance.api.Metric;
+
+/**
+ * Transfers metrics of workers to the coordinator and merges them. Timing metrics are transferred with
+ * whole histograms, so percentiles of the merged report are computed over all requests of all workers.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class DistributedMetrics {
+    private static final byte PLAIN = 0;
+    private static final byte TIMING = 1;
+    private static final Metric.Aggregation[] AGGREGATIONS = Metric.Aggregation.values();
+
+    private DistributedMetrics() { }
+
+    public static void write(DataOutput out, List<Metric> metrics) throws IOException {
+        Set<TimingMetric> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+        int count = 0;
+        for (Metric metric: metrics) {
+            if (!(metric instanceof TimingMetric.Entry) || counted.add(((TimingMetric.Entry) metric).source())) {
+                count += 1;
+            }
+        }
+
+        // order of metrics is kept, timing metric takes the place of its first entry
+        Set<TimingMetric> written = Collections.newSetFromMap(new IdentityHashMap<>());
+        out.writeInt(count);
+        for (Metric metric: metrics) {
+            if (metric instanceof TimingMetric.Entry) {
+                TimingMetric.Entry entry = (TimingMetric.Entry) metric;
+                if (written.add(entry.source())) {
+                    out.writeByte(TIMING);
+                    out.writeUTF(entry.prefix());
+                    entry.source().write(out);
+                }
+            } else {
+                out.writeByte(PLAIN);
+                out.writeUTF(metric.name());
+                out.writeDouble(metric.value());
+                out.writeByte(metric.aggregation().ordinal());
+            }
+        }
+    }
+
+    public static List<Metric> read(DataInput in) throws IOException {
+        List<Metric> metrics = new ArrayList<>();
+        int count = in.readInt();
+        for (int idx = 0; idx < count; idx += 1) {
+            byte type = in.readByte();
+            String name = in.readUTF();
+            if (type == TIMING) {
+                TimingMetric timing = new TimingMetric();
+                timing.read(in);
+                metrics.addAll(timing.toMetrics(name));
+            } else {
+                double value = in.readDouble();
+                metrics.add(new Metric(name, value, AGGREGATIONS[in.readByte()]));
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Merges metrics of workers. Timing metrics are merged by histograms, other metrics are merged by their
+     * aggregation, the aggregation of the first worker is used.
+     * @param workers metrics of every worker
+     * @return merged metrics
+     */
+    public static List<Metric> merge(List<List<Metric>> workers) {
+        Map<String, Object> merged = new LinkedHashMap<>();
+        for (List<Metric> metrics: workers) {
+            Set<TimingMetric> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Metric metric: metrics) {
+                if (metric instanceof TimingMetric.Entry) {
+                    TimingMetric.Entry entry = (TimingMetric.Entry) metric;
+                    if (visited.add(entry.source())) {
+                        Object timing = merged.computeIfAbsent(entry.prefix(), k -> new TimingMetric());
+                        ((TimingMetric) timing).merge(entry.source());
+                    }
+                } else {
+                    Object value = merged.computeIfAbsent(metric.name(), k -> new PlainValue(metric));
+                    ((PlainValue) value).add(metric.value());
+                }
+            }
+        }
+
+        List<Metric> result = new ArrayList<>();
+        merged.forEach((name, value) -> {
+            if (value instanceof TimingMetric) {
+                result.addAll(((TimingMetric) value).toMetrics(name));
+            } else {
+                result.add(((PlainValue) value).toMetric());
+            }
+        });
+        return result;
+    }
+
+    private static class PlainValue {
+        private final String name;
+        private final Metric.Aggregation aggregation;
+        private final double first;
+        private double sum = 0;
+        private double max = Double.NEGATIVE_INFINITY;
+        private int count = 0;
+
+        PlainValue(Metric metric) {
+            this.name = metric.name();
+            this.aggregation = metric.aggregation();
+            this.first = metric.value();
+        }
+
+        void add(double value) {
+            sum += value;
+            max = Math.max(max, value);
+            count += 1;
+        }
+
+        Metric toMetric() {
+            switch (aggregation) {
+                case SUM:
+                    return new Metric(name, sum, aggregation);
+                case MAX:
+                    return new Metric(name, max, aggregation);
+                case SAME:
+                    return new Metric(name, first, aggregation);
+                case AVG:
+                default:
+                    return new Metric(name, sum / count, aggregation);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package tech.ydb.performance.metrics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Fixed-size log-linear histogram. Every power of two range is split into 64 linear
+ * buckets, so relative error of reported values is less than 1/64.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class Histogram {
+    private static final int SUB_BUCKETS_BITS = 7;
+    private static final int SUB_BUCKETS_HALF = 1 << (SUB_BUCKETS_BITS - 1);
+
+    // 2^36 ns is about 68 seconds
+    static final long MAX_TRACKABLE = (1L << 36) - 1;
+    static final int BUCKETS_COUNT = bucketIndex(MAX_TRACKABLE) + 1;
+
+    // buckets are allocated on the first record, most of error histograms stay empty
+    private long[] counts = null;
+    private long totalCount = 0;
+
+    public void record(long value) {
+        if (counts == null) {
+            counts = new long[BUCKETS_COUNT];
+        }
+        counts[bucketIndex(Math.min(Math.max(value, 0), MAX_TRACKABLE))] += 1;
+        totalCount += 1;
+    }
+
+    public void merge(Histogram other) {
+        if (other.counts == null) {
+            return;
+        }
+        if (counts == null) {
+            counts = new long[BUCKETS_COUNT];
+        }
+        for (int idx = 0; idx < BUCKETS_COUNT; idx += 1) {
+            counts[idx] += other.counts[idx];
+        }
+        totalCount += other.totalCount;
+    }
+
+    public void reset() {
+        if (counts != null) {
+            Arrays.fill(counts, 0);
+        }
+        totalCount = 0;
+    }
+
+    // only non empty buckets are written
+    void write(DataOutput out) throws IOException {
+        int nonEmpty = 0;
+        for (int idx = 0; counts != null && idx < BUCKETS_COUNT; idx += 1) {
+            nonEmpty += counts[idx] != 0 ? 1 : 0;
+        }
+
+        out.writeInt(nonEmpty);
+        for (int idx = 0; nonEmpty > 0 && idx < BUCKETS_COUNT; idx += 1) {
+            if (counts[idx] != 0) {
+                out.writeShort(idx);
+                out.writeLong(counts[idx]);
+            }
+        }
+    }
+
+    void read(DataInput in) throws IOException {
+        reset();
+        int nonEmpty = in.readInt();
+        for (int idx = 0; idx < nonEmpty; idx += 1) {
+            int bucket = in.readShort();
+            long count = in.readLong();
+            if (counts == null) {
+                counts = new long[BUCKETS_COUNT];
+            }
+            counts[bucket] += count;
+            totalCount += count;
+        }
+    }
+
+    void add(int bucket, long count) {
+        if (count == 0) {
+            return;
+        }
+        if (counts == null) {
+            counts = new long[BUCKETS_COUNT];
+        }
+        counts[bucket] += count;
+        totalCount += count;
+    }
+
+    // count of values in the buckets from the first one to the given one inclusive
+    long cumulativeCount(int bucket) {
+        long cumulative = 0;
+        for (int idx = 0; counts != null && idx <= bucket; idx += 1) {
+            cumulative += counts[idx];
+        }
+        return cumulative;
+    }
+
+    public long totalCount() {
+        return totalCount;
+    }
+
+    public long valueAtQuantile(double quantile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long)Math.ceil(quantile * totalCount));
+        long cumulative = 0;
+        for (int idx = 0; idx < BUCKETS_COUNT; idx += 1) {
+            cumulative += counts[idx];
+            if (cumulative >= rank) {
+                return bucketLowerBound(idx) + (bucketWidth(idx) - 1) / 2;
+            }
+        }
+
+        return MAX_TRACKABLE;
+    }
+
+    static int bucketIndex(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKETS_BITS - 1));
+        return (shift << (SUB_BUCKETS_BITS - 1)) + (int)(value >>> shift);
+    }
+
+    static long bucketLowerBound(int index) {
+        if (index < 2 * SUB_BUCKETS_HALF) {
+            return index;
+        }
+        int shift = (index >> (SUB_BUCKETS_BITS - 1)) - 1;
+        long sub = (index & (SUB_BUCKETS_HALF - 1)) + SUB_BUCKETS_HALF;
+        return sub << shift;
+    }
+
+    // index of the last bucket which values are all not greater than the bound, -1 if there is no such bucket
+    static int lastBucketNotGreater(long bound) {
+        if (bound < 0) {
+            return -1;
+        }
+        int idx = bucketIndex(Math.min(bound, MAX_TRACKABLE));
+        return bucketUpperBound(idx) <= bound ? idx : idx - 1;
+    }
+
+    static long bucketUpperBound(int index) {
+        return bucketLowerBound(index) + bucketWidth(index) - 1;
+    }
+
+    static long bucketWidth(int index) {
+        if (index < 2 * SUB_BUCKETS_HALF) {
+            return 1;
+        }
+        return 1L << ((index >> (SUB_BUCKETS_BITS - 1)) - 1);
+    }
+}
@@ -0,0 +1,54 @@
+package tech.ydb.performance.metrics;
+
+/**
+ * Recorder of request timings for the interval reports and the live metrics. Writers never block, reporter thread
+ * periodically swaps the active metric and collects the data of the finished interval.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class IntervalRecorder {
+    private final WriterReaderPhaser phaser = new WriterReaderPhaser();
+
+    private volatile RequestMetric active = new RequestMetric();
+    private RequestMetric inactive = new RequestMetric();
+
+    // live metric is null if live metrics are disabled
+    private final LiveRequestMetric live;
+    private final boolean interval;
+
+    IntervalRecorder(LiveRequestMetric live, boolean interval) {
+        this.live = live;
+        this.interval = interval;
+    }
+
+    public void record(boolean ok, long ns) {
+        if (live != null) {
+            live.record(ok, ns);
+        }
+        if (!interval) {
+            return;
+        }
+
+        long criticalValue = phaser.writerCriticalSectionEnter();
+        try {
+            active.record(ok, ns);
+        } finally {
+            phaser.writerCriticalSectionExit(criticalValue);
+        }
+    }
+
+    void collectInterval(RequestMetric target) {
+        phaser.readerLock();
+        try {
+            inactive.reset();
+            RequestMetric finished = active;
+            active = inactive;
+            inactive = finished;
+
+            phaser.flipPhase();
+            target.merge(finished);
+        } finally {
+            phaser.readerUnlock();
+        }
+    }
+}
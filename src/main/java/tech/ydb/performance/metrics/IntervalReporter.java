@@ -0,0 +1,216 @@
+package tech.ydb.performance.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically collects timings of all registered recorders and writes them as a time series
+ * to the log and to the optional CSV or JSON lines file.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class IntervalReporter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(IntervalReporter.class);
+
+    public static final IntervalReporter DISABLED = new IntervalReporter(0, null);
+
+    private static final String CSV_HEADER = "timestamp,elapsed_s,name,ok_count,error_count,"
+            + "rps,error_rate,avg_ms,p50_ms,p90_ms,p99_ms,p99_9_ms,max_ms";
+
+    private final long intervalMs;
+    private final String outputFile;
+    private final boolean csv;
+    private final DecimalFormat df = new DecimalFormat("0.###", DecimalFormatSymbols.getInstance(Locale.ROOT));
+
+    private final Map<String, List<IntervalRecorder>> recorders = new LinkedHashMap<>();
+    private final Set<String> reportedNames = new HashSet<>();
+
+    private ScheduledExecutorService scheduler = null;
+    private Writer writer = null;
+    private long startedMs = 0;
+    private long lastReportMs = 0;
+
+    public IntervalReporter(long intervalMs, String outputFile) {
+        this.intervalMs = intervalMs;
+        this.outputFile = outputFile;
+        this.csv = outputFile != null && outputFile.endsWith(".csv");
+    }
+
+    public boolean isEnabled() {
+        return intervalMs > 0;
+    }
+
+    /**
+     * Creates a new recorder for the one writer thread
+     * @param name name of the request metric
+     * @return recorder or null if both interval reporting and live metrics are disabled
+     */
+    public IntervalRecorder recorder(String name) {
+        LiveRequestMetric live = LiveMetrics.request(name);
+        if (!isEnabled()) {
+            return live != null ? new IntervalRecorder(live, false) : null;
+        }
+
+        IntervalRecorder recorder = new IntervalRecorder(live, true);
+        synchronized (this) {
+            recorders.computeIfAbsent(name, n -> new ArrayList<>()).add(recorder);
+        }
+        return recorder;
+    }
+
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        if (outputFile != null) {
+            try {
+                writer = Files.newBufferedWriter(Paths.get(outputFile), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                if (csv) {
+                    writer.write(CSV_HEADER);
+                    writer.write("\n");
+                }
+            } catch (IOException ex) {
+                logger.error("can't open interval report file {}", outputFile, ex);
+            }
+        }
+
+        startedMs = System.currentTimeMillis();
+        lastReportMs = startedMs;
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "interval-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::report, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (scheduler == null) {
+            return;
+        }
+
+        try {
+            scheduler.shutdown();
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            logger.error("interrupted", ex);
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+
+        // report the last incomplete interval
+        report();
+
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ex) {
+                logger.error("can't close interval report file {}", outputFile, ex);
+            }
+            writer = null;
+        }
+    }
+
+    private synchronized void report() {
+        long now = System.currentTimeMillis();
+        long intervalLength = Math.max(1, now - lastReportMs);
+        lastReportMs = now;
+
+        for (Map.Entry<String, List<IntervalRecorder>> entry: recorders.entrySet()) {
+            RequestMetric interval = new RequestMetric();
+            entry.getValue().forEach(r -> r.collectInterval(interval));
+
+            long okCount = interval.oks().count();
+            long errorCount = interval.errors().count();
+            if (okCount + errorCount == 0 && !reportedNames.contains(entry.getKey())) {
+                // skip metrics which have never been recorded
+                continue;
+            }
+            reportedNames.add(entry.getKey());
+
+            writeInterval(now, entry.getKey(), interval, intervalLength);
+        }
+
+        if (writer != null) {
+            try {
+                writer.flush();
+            } catch (IOException ex) {
+                logger.warn("can't flush interval report file {}", outputFile, ex);
+            }
+        }
+    }
+
+    private void writeInterval(long timestamp, String name, RequestMetric metric, long intervalLength) {
+        TimingMetric oks = metric.oks();
+        long total = oks.count() + metric.errors().count();
+        double elapsed = 1e-3d * (timestamp - startedMs);
+        double rps = 1000d * total / intervalLength;
+        double errorRate = total > 0 ? (double)metric.errors().count() / total : 0;
+
+        logger.info("interval {}s {}: {} rps, error rate {}, avg {} ms, p50 {} ms, p99 {} ms, max {} ms",
+                df.format(elapsed), name, df.format(rps), df.format(errorRate), df.format(oks.avgMs()),
+                df.format(oks.percentileMs(0.5d)), df.format(oks.percentileMs(0.99d)), df.format(oks.maxMs()));
+
+        if (writer == null) {
+            return;
+        }
+
+        String[] values = new String[] {
+            String.valueOf(timestamp), df.format(elapsed), name,
+            String.valueOf(oks.count()), String.valueOf(metric.errors().count()),
+            df.format(rps), df.format(errorRate), df.format(oks.avgMs()),
+            df.format(oks.percentileMs(0.5d)), df.format(oks.percentileMs(0.9d)),
+            df.format(oks.percentileMs(0.99d)), df.format(oks.percentileMs(0.999d)), df.format(oks.maxMs()),
+        };
+
+        StringBuilder line = new StringBuilder();
+        if (csv) {
+            line.append(String.join(",", values));
+        } else {
+            String[] columns = CSV_HEADER.split(",");
+            line.append("{");
+            for (int idx = 0; idx < columns.length; idx += 1) {
+                if (idx > 0) {
+                    line.append(",");
+                }
+                line.append("\"").append(columns[idx]).append("\":");
+                if (idx == 2) {
+                    line.append("\"").append(values[idx]).append("\"");
+                } else {
+                    line.append(values[idx]);
+                }
+            }
+            line.append("}");
+        }
+
+        try {
+            writer.write(line.append("\n").toString());
+        } catch (IOException ex) {
+            logger.warn("can't write interval report file {}", outputFile, ex);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package tech.ydb.performance.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumulative counter of events for the live metrics, shared by all writer threads.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class LiveCounter implements LiveCounterMBean {
+    private final LongAdder count = new LongAdder();
+
+    void inc() {
+        count.increment();
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+}
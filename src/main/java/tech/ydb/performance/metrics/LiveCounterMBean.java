@@ -0,0 +1,10 @@
+package tech.ydb.performance.metrics;
+
+/**
+ * JMX view of the live counter.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public interface LiveCounterMBean {
+    long getCount();
+}
@@ -0,0 +1,93 @@
+package tech.ydb.performance.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process wide registry of live metrics. Values are cumulative since the start of the application and
+ * are shared by all workloads, so Prometheus rates and JMX attributes are continuous between runs of scripts
+ * and probes. Registry is disabled by default and writers pay nothing for it.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public final class LiveMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(LiveMetrics.class);
+
+    private static final String JMX_DOMAIN = "tech.ydb.performance";
+    private static final String PREFIX = "ydb_perf_";
+
+    private static final Map<String, LiveRequestMetric> REQUESTS = new ConcurrentSkipListMap<>();
+    private static final Map<String, LiveCounter> COUNTERS = new ConcurrentSkipListMap<>();
+
+    private static volatile boolean enabled = false;
+    private static volatile boolean jmx = false;
+
+    private LiveMetrics() { }
+
+    public static void enable(boolean registerMBeans) {
+        jmx = registerMBeans;
+        enabled = true;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param name name of the request metric
+     * @return shared live metric or null if live metrics are disabled
+     */
+    static LiveRequestMetric request(String name) {
+        if (!enabled) {
+            return null;
+        }
+        return REQUESTS.computeIfAbsent(name, n -> register("Request", n, new LiveRequestMetric(n)));
+    }
+
+    /**
+     * @param name name of the counter
+     * @return shared live counter or null if live metrics are disabled
+     */
+    static LiveCounter counter(String name) {
+        if (!enabled) {
+            return null;
+        }
+        return COUNTERS.computeIfAbsent(name, n -> register("Counter", n, new LiveCounter()));
+    }
+
+    private static <T> T register(String type, String name, T mbean) {
+        if (jmx) {
+            try {
+                ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + name);
+                ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, objectName);
+            } catch (JMException ex) {
+                logger.warn("can't register MBean {} {}", type, name, ex);
+            }
+        }
+        return mbean;
+    }
+
+    public static synchronized String prometheusText() {
+        StringBuilder sb = new StringBuilder();
+        String requestMetric = PREFIX + "request_duration_seconds";
+        sb.append("# HELP ").append(requestMetric).append(" Duration of requests of the load generator\n");
+        sb.append("# TYPE ").append(requestMetric).append(" histogram\n");
+        REQUESTS.values().forEach(m -> m.writePrometheus(sb, requestMetric));
+
+        String counterMetric = PREFIX + "events_total";
+        sb.append("# HELP ").append(counterMetric).append(" Count of events of the load generator\n");
+        sb.append("# TYPE ").append(counterMetric).append(" counter\n");
+        COUNTERS.forEach((name, counter) -> {
+            sb.append(counterMetric).append("{event=\"").append(name).append("\"} ")
+                    .append(counter.getCount()).append('\n');
+        });
+        return sb.toString();
+    }
+}
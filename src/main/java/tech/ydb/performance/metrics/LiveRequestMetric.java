@@ -0,0 +1,101 @@
+package tech.ydb.performance.metrics;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Cumulative timings of one request type for the live metrics, shared by all writer threads.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class LiveRequestMetric implements LiveRequestMetricMBean {
+    private static final DecimalFormat DF = new DecimalFormat("0.#########",
+            DecimalFormatSymbols.getInstance(Locale.ROOT));
+    // approximate bounds of Prometheus histogram buckets in seconds
+    private static final double[] BUCKETS = {
+        0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    // Prometheus buckets end at bounds of whole histogram buckets, so their counts are exact
+    private static final int[] HISTOGRAM_BUCKETS = histogramBuckets();
+
+    private final String name;
+    private final StripedHistogram oks = new StripedHistogram();
+    private final StripedHistogram errors = new StripedHistogram();
+
+    LiveRequestMetric(String name) {
+        this.name = name;
+    }
+
+    void record(boolean ok, long ns) {
+        if (ok) {
+            oks.record(ns);
+        } else {
+            errors.record(ns);
+        }
+    }
+
+    void writePrometheus(StringBuilder sb, String metric) {
+        writePrometheus(sb, metric, "ok", oks);
+        writePrometheus(sb, metric, "error", errors);
+    }
+
+    private void writePrometheus(StringBuilder sb, String metric, String status, StripedHistogram histogram) {
+        Histogram snapshot = histogram.snapshot();
+        String labels = "{request=\"" + name + "\",status=\"" + status + "\"";
+        for (int bucket: HISTOGRAM_BUCKETS) {
+            double le = Histogram.bucketUpperBound(bucket) / 1e9;
+            sb.append(metric).append("_bucket").append(labels).append(",le=\"").append(DF.format(le))
+                    .append("\"} ").append(snapshot.cumulativeCount(bucket)).append('\n');
+        }
+        sb.append(metric).append("_bucket").append(labels).append(",le=\"+Inf\"} ")
+                .append(snapshot.totalCount()).append('\n');
+        sb.append(metric).append("_sum").append(labels).append("} ").append(DF.format(histogram.sumNs() / 1e9))
+                .append('\n');
+        sb.append(metric).append("_count").append(labels).append("} ").append(snapshot.totalCount()).append('\n');
+    }
+
+    private static int[] histogramBuckets() {
+        int[] buckets = new int[BUCKETS.length];
+        for (int idx = 0; idx < BUCKETS.length; idx += 1) {
+            buckets[idx] = Histogram.lastBucketNotGreater((long) (BUCKETS[idx] * 1e9));
+        }
+        return buckets;
+    }
+
+    @Override
+    public long getOkCount() {
+        return oks.snapshot().totalCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.snapshot().totalCount();
+    }
+
+    @Override
+    public double getOkMeanMs() {
+        long count = getOkCount();
+        return count > 0 ? oks.sumNs() / 1e6 / count : 0;
+    }
+
+    @Override
+    public double getOkP50Ms() {
+        return oks.snapshot().valueAtQuantile(0.5) / 1e6;
+    }
+
+    @Override
+    public double getOkP90Ms() {
+        return oks.snapshot().valueAtQuantile(0.9) / 1e6;
+    }
+
+    @Override
+    public double getOkP99Ms() {
+        return oks.snapshot().valueAtQuantile(0.99) / 1e6;
+    }
+
+    @Override
+    public double getOkP999Ms() {
+        return oks.snapshot().valueAtQuantile(0.999) / 1e6;
+    }
+}
@@ -0,0 +1,22 @@
+package tech.ydb.performance.metrics;
+
+/**
+ * JMX view of the live request metric, values are collected since the start of the application.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public interface LiveRequestMetricMBean {
+    long getOkCount();
+
+    long getErrorCount();
+
+    double getOkMeanMs();
+
+    double getOkP50Ms();
+
+    double getOkP90Ms();
+
+    double getOkP99Ms();
+
+    double getOkP999Ms();
+}
@@ -12,4 +12,8 @@ public class NanoTimer {
         currentNanoTime = System.nanoTime();
         return currentNanoTime - old;
     }
+
+    public long last() {
+        return currentNanoTime;
+    }
 }
@@ -1,9 +1,15 @@
 package tech.ydb.performance.metrics;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import tech.ydb.performance.api.Metric;
 
 /**
@@ -11,14 +17,50 @@ import tech.ydb.performance.api.Metric;
  * @author Aleksandr Gorshenin
  */
 public class ReadMetric {
+    private static final Logger logger = LoggerFactory.getLogger(ReadMetric.class);
+    private static final double CLIENT_PHASES_WARN_PERCENT = 20;
+
     private final CounterMetric counter = new CounterMetric();
+    private final CounterMetric sessionRecreates = new CounterMetric();
+    private final LiveCounter liveRequests = LiveMetrics.counter("REQUESTS");
+    private final LiveCounter liveSessionRecreates = LiveMetrics.counter("SESSION_RECREATES");
+    private boolean stickySessions = false;
+
+    private final RequestMetric getSession;
+    // preparing of read query, readData is the execution time only
+    private final RequestMetric prepareQuery;
+    private final RequestMetric readData;
+    // latency of batch read divided by count of keys
+    private final RequestMetric readKey;
+
+    // request latencies of open loop mode, corrected one is measured from the intended start time
+    private final RequestMetric request;
+    private final RequestMetric correctedRequest;
+    private double targetRate = 0;
 
-    private final RequestMetric getSession = new RequestMetric();
-    private final RequestMetric readData = new RequestMetric();
+    // breakdown of requests by phases, null if phases aren't measured
+    private final RequestMetric[] phases;
 
     private long started = System.currentTimeMillis();
     private long finished = started + 1;
 
+    public ReadMetric(boolean requestPhases) {
+        this(IntervalReporter.DISABLED, requestPhases);
+    }
+
+    public ReadMetric(IntervalReporter reporter, boolean requestPhases) {
+        this.getSession = new RequestMetric(reporter.recorder("GET_SESSION"));
+        this.prepareQuery = new RequestMetric(reporter.recorder("PREPARE_QUERY"));
+        this.readData = new RequestMetric(reporter.recorder("READ_DATA"));
+        this.readKey = new RequestMetric(reporter.recorder("READ_KEY"));
+        this.request = new RequestMetric(reporter.recorder("REQUEST_UNCORRECTED"));
+        this.correctedRequest = new RequestMetric(reporter.recorder("REQUEST_CORRECTED"));
+        this.phases = requestPhases ? new RequestMetric[RequestPhases.Phase.values().length] : null;
+        for (int idx = 0; requestPhases && idx < phases.length; idx += 1) {
+            phases[idx] = new RequestMetric(reporter.recorder("PHASE_" + RequestPhases.Phase.values()[idx].name()));
+        }
+    }
+
     public void start() {
         started = System.currentTimeMillis();
         finished = started + 1;
@@ -26,31 +68,139 @@ public class ReadMetric {
 
     public void finish() {
         finished = System.currentTimeMillis();
+        if (clientPhasesPercent() > CLIENT_PHASES_WARN_PERCENT) {
+            logger.warn("requests spend {}% of time in client phases, the load generator may be the bottleneck",
+                    Math.round(clientPhasesPercent()));
+        }
     }
 
     public void requestInc() {
         counter.inc();
+        if (liveRequests != null) {
+            liveRequests.inc();
+        }
+    }
+
+    public void sessionRecreateInc() {
+        sessionRecreates.inc();
+        if (liveSessionRecreates != null) {
+            liveSessionRecreates.inc();
+        }
     }
 
     public void recordGetSession(boolean ok, long ns) {
         getSession.record(ok, ns);
     }
 
+    public void recordPrepareQuery(boolean ok, long ns) {
+        prepareQuery.record(ok, ns);
+    }
+
     public void recordReadData(boolean ok, long ns) {
         readData.record(ok, ns);
     }
 
+    public void recordReadKeys(boolean ok, long batchNs, int keysCount) {
+        long perKey = batchNs / Math.max(1, keysCount);
+        for (int idx = 0; idx < keysCount; idx += 1) {
+            readKey.record(ok, perKey);
+        }
+    }
+
+    public void recordRequest(boolean ok, long intendedNs, long startNs, long finishNs) {
+        request.record(ok, finishNs - startNs);
+        correctedRequest.record(ok, finishNs - intendedNs);
+    }
+
+    /**
+     * @param request measured phases of the request
+     * @param ok outcome of the request, phases of failed requests are recorded as errors
+     */
+    public void recordPhases(RequestPhases request, boolean ok) {
+        if (phases == null || !request.isEnabled()) {
+            return;
+        }
+        for (RequestPhases.Phase phase: RequestPhases.Phase.values()) {
+            long ns = request.durationNs(phase);
+            if (ns >= 0) {
+                phases[phase.ordinal()].record(ok, ns);
+            }
+        }
+    }
+
+    /**
+     * @return percent of time which requests spend on the client side: in scheduling, callback and verify phases
+     */
+    public double clientPhasesPercent() {
+        if (phases == null) {
+            return 0;
+        }
+        double total = 0;
+        double client = 0;
+        for (RequestPhases.Phase phase: RequestPhases.Phase.values()) {
+            TimingMetric oks = phases[phase.ordinal()].oks();
+            double ms = oks.avgMs() * oks.count();
+            total += ms;
+            if (phase == RequestPhases.Phase.SCHEDULE || phase == RequestPhases.Phase.CALLBACK
+                    || phase == RequestPhases.Phase.VERIFY) {
+                client += ms;
+            }
+        }
+        return total > 0 ? 100d * client / total : 0;
+    }
+
+    public void setTargetRate(double requestsPerSecond) {
+        this.targetRate = requestsPerSecond;
+    }
+
+    public void setStickySessions(boolean sticky) {
+        this.stickySessions = sticky;
+    }
+
     public void merge(ReadMetric other) {
         counter.merge(other.counter);
+        sessionRecreates.merge(other.sessionRecreates);
         getSession.merge(other.getSession);
+        prepareQuery.merge(other.prepareQuery);
         readData.merge(other.readData);
+        readKey.merge(other.readKey);
+        request.merge(other.request);
+        correctedRequest.merge(other.correctedRequest);
+        for (int idx = 0; phases != null && other.phases != null && idx < phases.length; idx += 1) {
+            phases[idx].merge(other.phases[idx]);
+        }
     }
 
     public List<Metric> toMetrics() {
+        List<Metric> target = targetRate > 0
+                ? Collections.singletonList(
+                        new Metric("REQUESTS_TARGET_PER_SECOND", targetRate, Metric.Aggregation.SUM))
+                : Collections.emptyList();
+        List<Metric> sticky = stickySessions
+                ? Arrays.asList(
+                        new Metric("STICKY_SESSIONS", 1, Metric.Aggregation.SAME),
+                        new Metric("SESSION_RECREATE_COUNT", sessionRecreates.count(), Metric.Aggregation.SUM))
+                : Collections.emptyList();
+
+        List<Metric> phasesList = new ArrayList<>();
+        for (int idx = 0; phases != null && idx < phases.length; idx += 1) {
+            phasesList.addAll(phases[idx].toMetrics("PHASE_" + RequestPhases.Phase.values()[idx].name()));
+        }
+        if (!phasesList.isEmpty()) {
+            phasesList.add(new Metric("PHASE_CLIENT_PERCENT", clientPhasesPercent()));
+        }
+
         return Stream.of(
                 counter.toMetrics(finished - started, "REQUESTS_"),
+                target,
+                sticky,
                 getSession.toMetrics("GET_SESSION"),
-                readData.toMetrics("READ_DATA")
+                prepareQuery.toMetrics("PREPARE_QUERY"),
+                readData.toMetrics("READ_DATA"),
+                readKey.toMetrics("READ_KEY"),
+                request.toMetrics("REQUEST_UNCORRECTED"),
+                correctedRequest.toMetrics("REQUEST_CORRECTED"),
+                phasesList
         ).flatMap(List::stream).collect(Collectors.toList());
     }
 }
@@ -13,6 +13,15 @@ import tech.ydb.performance.api.Metric;
 public class RequestMetric {
     private final TimingMetric oks = new TimingMetric();
     private final TimingMetric errors = new TimingMetric();
+    private final IntervalRecorder interval;
+
+    public RequestMetric() {
+        this(null);
+    }
+
+    public RequestMetric(IntervalRecorder interval) {
+        this.interval = interval;
+    }
 
     public void record(boolean ok, long ns) {
         if (ok) {
@@ -20,6 +29,9 @@ public class RequestMetric {
         } else {
             errors.record(ns);
         }
+        if (interval != null) {
+            interval.record(ok, ns);
+        }
     }
 
     public void merge(RequestMetric other) {
@@ -27,6 +39,19 @@ public class RequestMetric {
         errors.merge(other.errors);
     }
 
+    void reset() {
+        oks.reset();
+        errors.reset();
+    }
+
+    TimingMetric oks() {
+        return oks;
+    }
+
+    TimingMetric errors() {
+        return errors;
+    }
+
     public List<Metric> toMetrics(String name) {
         return Stream.of(
                 oks.toMetrics(name + "_OK_"),
@@ -0,0 +1,90 @@
+package tech.ydb.performance.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * Timestamps of the lifecycle of one request: scheduled, session acquired, request sent, response received,
+ * callback executed and verified. Response is stamped by the thread which completes the future, so the time
+ * between the response and the callback is the client side queueing. Disabled instance does nothing.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class RequestPhases {
+    public enum Phase {
+        // from the intended start time to the actual start, only for open loop
+        SCHEDULE,
+        SESSION,
+        // preparing of the query and sending of the request
+        SEND,
+        RESPONSE,
+        CALLBACK,
+        VERIFY,
+    }
+
+    private final boolean enabled;
+    // stamps[0] is the intended start time, stamps[i + 1] is the end of the phase i
+    private final long[] stamps = new long[Phase.values().length + 1];
+    private final BiConsumer<Object, Throwable> onResponse = (result, th) -> mark(Phase.RESPONSE);
+
+    public RequestPhases(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Starts the next request
+     * @param intendedNs intended start time of open loop request or zero for closed loop
+     */
+    public void start(long intendedNs) {
+        if (enabled) {
+            Arrays.fill(stamps, 0);
+            stamps[0] = intendedNs;
+            mark(Phase.SCHEDULE);
+        }
+    }
+
+    /**
+     * Starts the next read of the same request, schedule and session phases are counted only for the first one
+     */
+    public void next() {
+        if (enabled) {
+            Arrays.fill(stamps, 0);
+            mark(Phase.SESSION);
+        }
+    }
+
+    public void mark(Phase phase) {
+        if (enabled) {
+            stamps[phase.ordinal() + 1] = System.nanoTime();
+        }
+    }
+
+    /**
+     * Marks the request as sent
+     * @param <T> type of the result
+     * @param future future of the request
+     * @return future which is completed after the response is stamped
+     */
+    public <T> CompletableFuture<T> sent(CompletableFuture<T> future) {
+        if (!enabled) {
+            return future;
+        }
+        mark(Phase.SEND);
+        return future.whenComplete(onResponse);
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param phase phase of the request
+     * @return duration of the phase or -1 if the phase or the previous one isn't finished
+     */
+    long durationNs(Phase phase) {
+        long from = stamps[phase.ordinal()];
+        long to = stamps[phase.ordinal() + 1];
+        return from != 0 && to != 0 ? to - from : -1;
+    }
+}
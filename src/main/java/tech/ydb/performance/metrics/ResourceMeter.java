@@ -0,0 +1,173 @@
+package tech.ydb.performance.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import tech.ydb.performance.api.Metric;
+
+/**
+ * Client side resources consumed during the measured window: CPU time of the process and of java threads,
+ * heap allocations of java threads and GC activity. Threads are accounted by id: threads which are alive at
+ * the end of the window are compared with the snapshot taken at its start, threads which finish inside
+ * the window are reported by {@link #threadFinished()}. CPU time and allocations are available on HotSpot
+ * based JVMs only, unsupported values are reported as zero.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class ResourceMeter {
+    private static final com.sun.management.ThreadMXBean THREADS = threadsBean();
+    private static final com.sun.management.OperatingSystemMXBean OS = osBean();
+
+    // totals of threads finished inside the current window by thread id
+    private static final Map<Long, long[]> FINISHED = new ConcurrentHashMap<>();
+    private static volatile boolean measuring = false;
+
+    private Map<Long, long[]> startThreads = new HashMap<>();
+    private long startProcessCpuNs;
+    private long startGcCount;
+    private long startGcTimeMs;
+    private long startMs;
+
+    private long processCpuNs = 0;
+    private long threadsCpuNs = 0;
+    private long allocatedBytes = 0;
+    private long gcCount = 0;
+    private long gcTimeMs = 0;
+    private long windowMs = 1;
+
+    /**
+     * Accounts resources of the current thread, must be called by the thread just before its finish
+     */
+    public static void threadFinished() {
+        if (THREADS != null && measuring) {
+            FINISHED.put(Thread.currentThread().getId(), new long[] {
+                Math.max(0, THREADS.getCurrentThreadCpuTime()),
+                AllocationCounter.currentThreadAllocatedBytes()
+            });
+        }
+    }
+
+    public void start() {
+        FINISHED.clear();
+        measuring = true;
+        startThreads = threadsSnapshot();
+        startProcessCpuNs = processCpuTime();
+        startGcCount = gcCount();
+        startGcTimeMs = gcTimeMs();
+        startMs = System.currentTimeMillis();
+    }
+
+    public void finish() {
+        windowMs = Math.max(1, System.currentTimeMillis() - startMs);
+        processCpuNs = processCpuTime() - startProcessCpuNs;
+        gcCount = gcCount() - startGcCount;
+        gcTimeMs = gcTimeMs() - startGcTimeMs;
+
+        // thread may report its finish and still be alive, live values are the latest ones
+        Map<Long, long[]> threads = new HashMap<>(FINISHED);
+        threads.putAll(threadsSnapshot());
+        measuring = false;
+        FINISHED.clear();
+
+        threadsCpuNs = 0;
+        allocatedBytes = 0;
+        for (Map.Entry<Long, long[]> e: threads.entrySet()) {
+            // threads which are started inside the window are accounted completely
+            long[] start = startThreads.getOrDefault(e.getKey(), new long[] { 0, 0 });
+            threadsCpuNs += Math.max(0, e.getValue()[0] - start[0]);
+            allocatedBytes += Math.max(0, e.getValue()[1] - start[1]);
+        }
+    }
+
+    private static Map<Long, long[]> threadsSnapshot() {
+        Map<Long, long[]> snapshot = new HashMap<>();
+        if (THREADS == null) {
+            return snapshot;
+        }
+
+        long[] ids = THREADS.getAllThreadIds();
+        long[] cpu = THREADS.getThreadCpuTime(ids);
+        long[] allocated = THREADS.getThreadAllocatedBytes(ids);
+        for (int idx = 0; idx < ids.length; idx += 1) {
+            // finished thread has negative values
+            if (cpu[idx] >= 0 && allocated[idx] >= 0) {
+                snapshot.put(ids[idx], new long[] { cpu[idx], allocated[idx] });
+            }
+        }
+        return snapshot;
+    }
+
+    public boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * @param unit name of the operation, e.g. OP or ROW
+     * @param count count of operations of the window
+     * @return client side cost of one operation
+     */
+    public List<Metric> toMetrics(String unit, double count) {
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(
+                new Metric("RESOURCE_CPU_US_PER_" + unit, 1e-3d * processCpuNs / count),
+                new Metric("RESOURCE_THREADS_CPU_US_PER_" + unit, 1e-3d * threadsCpuNs / count),
+                new Metric("RESOURCE_ALLOC_BYTES_PER_" + unit, allocatedBytes / count)
+        );
+    }
+
+    public List<Metric> toMetrics() {
+        return Arrays.asList(
+                new Metric("RESOURCE_PROCESS_CPU_MS", 1e-6d * processCpuNs, Metric.Aggregation.SUM),
+                new Metric("RESOURCE_THREADS_CPU_MS", 1e-6d * threadsCpuNs, Metric.Aggregation.SUM),
+                new Metric("RESOURCE_CPU_CORES", 1e-6d * processCpuNs / windowMs, Metric.Aggregation.SUM),
+                new Metric("RESOURCE_ALLOC_MB", allocatedBytes / (1024d * 1024d), Metric.Aggregation.SUM),
+                new Metric("RESOURCE_ALLOC_MB_PER_SECOND", 1000d * allocatedBytes / windowMs / (1024d * 1024d),
+                        Metric.Aggregation.SUM),
+                new Metric("RESOURCE_GC_COUNT", gcCount, Metric.Aggregation.SUM),
+                new Metric("RESOURCE_GC_TIME_MS", gcTimeMs, Metric.Aggregation.SUM)
+        );
+    }
+
+    private static long processCpuTime() {
+        return OS != null ? Math.max(0, OS.getProcessCpuTime()) : 0;
+    }
+
+    // collection time includes concurrent phases for some collectors, so it is the upper bound of pauses
+    private static long gcTimeMs() {
+        long sum = 0;
+        for (GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans()) {
+            sum += Math.max(0, gc.getCollectionTime());
+        }
+        return sum;
+    }
+
+    private static long gcCount() {
+        long sum = 0;
+        for (GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans()) {
+            sum += Math.max(0, gc.getCollectionCount());
+        }
+        return sum;
+    }
+
+    private static com.sun.management.ThreadMXBean threadsBean() {
+        com.sun.management.ThreadMXBean threads = AllocationCounter.threads();
+        return threads != null && threads.isThreadCpuTimeEnabled() ? threads : null;
+    }
+
+    private static com.sun.management.OperatingSystemMXBean osBean() {
+        OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        if (!(bean instanceof com.sun.management.OperatingSystemMXBean)) {
+            return null;
+        }
+        return (com.sun.management.OperatingSystemMXBean) bean;
+    }
+}
@@ -0,0 +1,63 @@
+package tech.ydb.performance.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Histogram for many concurrent writers. Writer threads are spread over stripes by their ids, threads of the
+ * same stripe update its buckets by atomic increments without locks, stripes are summed only by the reader.
+ * Snapshot isn't atomic, it may miss records which are in progress.
+ *
+ * @author Aleksandr Gorshenin
+ */
+class StripedHistogram {
+    private static final int STRIPES = stripesCount();
+    // the last slot of every stripe keeps the sum of values
+    private static final int SUM = Histogram.BUCKETS_COUNT;
+
+    // stripes are allocated by the first record of the thread
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    void record(long ns) {
+        long value = Math.min(Math.max(ns, 0), Histogram.MAX_TRACKABLE);
+        AtomicLongArray stripe = stripe();
+        stripe.incrementAndGet(Histogram.bucketIndex(value));
+        stripe.addAndGet(SUM, value);
+    }
+
+    Histogram snapshot() {
+        Histogram histogram = new Histogram();
+        for (int idx = 0; idx < STRIPES; idx += 1) {
+            AtomicLongArray stripe = stripes.get(idx);
+            for (int bucket = 0; stripe != null && bucket < Histogram.BUCKETS_COUNT; bucket += 1) {
+                histogram.add(bucket, stripe.get(bucket));
+            }
+        }
+        return histogram;
+    }
+
+    long sumNs() {
+        long sum = 0;
+        for (int idx = 0; idx < STRIPES; idx += 1) {
+            AtomicLongArray stripe = stripes.get(idx);
+            sum += stripe != null ? stripe.get(SUM) : 0;
+        }
+        return sum;
+    }
+
+    private AtomicLongArray stripe() {
+        // thread ids are sequential, so threads of one pool get different stripes
+        int idx = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        AtomicLongArray stripe = stripes.get(idx);
+        if (stripe == null) {
+            stripes.compareAndSet(idx, null, new AtomicLongArray(Histogram.BUCKETS_COUNT + 1));
+            stripe = stripes.get(idx);
+        }
+        return stripe;
+    }
+
+    private static int stripesCount() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        return Integer.highestOneBit(Math.min(Math.max(4 * cpus, 8), 256) * 2 - 1);
+    }
+}
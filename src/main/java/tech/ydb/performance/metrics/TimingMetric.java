@@ -1,5 +1,8 @@
 package tech.ydb.performance.metrics;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -11,6 +14,8 @@ import tech.ydb.performance.api.Metric;
  * @author Aleksandr Gorshenin
  */
 public class TimingMetric {
+    private final Histogram histogram = new Histogram();
+
     private long summaryTime = 0;
     private long minTime = Long.MAX_VALUE;
     private long maxTime = 0;
@@ -21,6 +26,7 @@ public class TimingMetric {
         minTime = Math.min(minTime, ns);
         maxTime = Math.max(maxTime, ns);
         count += 1;
+        histogram.record(ns);
     }
 
     void merge(TimingMetric other) {
@@ -28,6 +34,51 @@ public class TimingMetric {
         minTime = Math.min(minTime, other.minTime);
         maxTime = Math.max(maxTime, other.maxTime);
         count += other.count;
+        histogram.merge(other.histogram);
+    }
+
+    void reset() {
+        summaryTime = 0;
+        minTime = Long.MAX_VALUE;
+        maxTime = 0;
+        count = 0;
+        histogram.reset();
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeLong(summaryTime);
+        out.writeLong(minTime);
+        out.writeLong(maxTime);
+        out.writeLong(count);
+        histogram.write(out);
+    }
+
+    void read(DataInput in) throws IOException {
+        summaryTime = in.readLong();
+        minTime = in.readLong();
+        maxTime = in.readLong();
+        count = in.readLong();
+        histogram.read(in);
+    }
+
+    long count() {
+        return count;
+    }
+
+    double avgMs() {
+        return count == 0 ? 0 : 1e-6d * summaryTime / count;
+    }
+
+    double maxMs() {
+        return 1e-6d * maxTime;
+    }
+
+    double percentileMs(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long ns = Math.min(Math.max(histogram.valueAtQuantile(quantile), minTime), maxTime);
+        return 1e-6d * ns;
     }
 
     public List<Metric> toMetrics(String prefix) {
@@ -36,11 +87,37 @@ public class TimingMetric {
         }
 
         return Arrays.asList(
-                new Metric(prefix + "TOTAL_COUNT", count),
-                new Metric(prefix + "TOTAL_MS", 1e-6d * summaryTime),
-                new Metric(prefix + "AVG_MS", 1e-6d * summaryTime / count),
-                new Metric(prefix + "MIN_MS", 1e-6d * minTime),
-                new Metric(prefix + "MAX_MS", 1e-6d * maxTime)
+                new Entry(prefix, "TOTAL_COUNT", count),
+                new Entry(prefix, "TOTAL_MS", 1e-6d * summaryTime),
+                new Entry(prefix, "AVG_MS", 1e-6d * summaryTime / count),
+                new Entry(prefix, "MIN_MS", 1e-6d * minTime),
+                new Entry(prefix, "MAX_MS", 1e-6d * maxTime),
+                new Entry(prefix, "P50_MS", percentileMs(0.5d)),
+                new Entry(prefix, "P90_MS", percentileMs(0.9d)),
+                new Entry(prefix, "P99_MS", percentileMs(0.99d)),
+                new Entry(prefix, "P99_9_MS", percentileMs(0.999d)),
+                new Entry(prefix, "P99_99_MS", percentileMs(0.9999d))
         );
     }
+
+    /**
+     * Rendered value of timing metric, keeps the source metric so the whole histogram can be sent
+     * to the coordinator and merged with the histograms of other workers.
+     */
+    public class Entry extends Metric {
+        private final String prefix;
+
+        Entry(String prefix, String suffix, double value) {
+            super(prefix + suffix, value);
+            this.prefix = prefix;
+        }
+
+        String prefix() {
+            return prefix;
+        }
+
+        TimingMetric source() {
+            return TimingMetric.this;
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package tech.ydb.performance.metrics;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Synchronization primitive for wait-free writers and a rare blocking reader. Reader swaps the data
+ * written by writers and then calls {@link #flipPhase()} to wait for writers which are still in the
+ * critical sections of the previous phase. Same algorithm is used by HdrHistogram's Recorder.
+ *
+ * @author Aleksandr Gorshenin
+ */
+class WriterReaderPhaser {
+    private static final AtomicLongFieldUpdater<WriterReaderPhaser> START_EPOCH = AtomicLongFieldUpdater
+            .newUpdater(WriterReaderPhaser.class, "startEpoch");
+    private static final AtomicLongFieldUpdater<WriterReaderPhaser> EVEN_END_EPOCH = AtomicLongFieldUpdater
+            .newUpdater(WriterReaderPhaser.class, "evenEndEpoch");
+    private static final AtomicLongFieldUpdater<WriterReaderPhaser> ODD_END_EPOCH = AtomicLongFieldUpdater
+            .newUpdater(WriterReaderPhaser.class, "oddEndEpoch");
+
+    private final ReentrantLock readerLock = new ReentrantLock();
+
+    private volatile long startEpoch = 0;
+    private volatile long evenEndEpoch = 0;
+    private volatile long oddEndEpoch = Long.MIN_VALUE;
+
+    long writerCriticalSectionEnter() {
+        return START_EPOCH.getAndIncrement(this);
+    }
+
+    void writerCriticalSectionExit(long criticalValue) {
+        if (criticalValue < 0) {
+            ODD_END_EPOCH.getAndIncrement(this);
+        } else {
+            EVEN_END_EPOCH.getAndIncrement(this);
+        }
+    }
+
+    void readerLock() {
+        readerLock.lock();
+    }
+
+    void readerUnlock() {
+        readerLock.unlock();
+    }
+
+    // must be called under the reader lock
+    void flipPhase() {
+        boolean nextPhaseIsEven = startEpoch < 0;
+        long initialStartValue = nextPhaseIsEven ? 0 : Long.MIN_VALUE;
+
+        if (nextPhaseIsEven) {
+            EVEN_END_EPOCH.set(this, initialStartValue);
+        } else {
+            ODD_END_EPOCH.set(this, initialStartValue);
+        }
+
+        long startValueAtFlip = START_EPOCH.getAndSet(this, initialStartValue);
+
+        // wait for the writers of the previous phase
+        while ((nextPhaseIsEven ? oddEndEpoch : evenEndEpoch) != startValueAtFlip) {
+            Thread.yield();
+        }
+    }
+}
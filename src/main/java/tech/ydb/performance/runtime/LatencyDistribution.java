@@ -0,0 +1,94 @@
+package tech.ydb.performance.runtime;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latency distribution of the in-memory runtime. Supported specifications (all values in microseconds):
+ * fixed:&lt;value&gt;, uniform:&lt;min&gt;:&lt;max&gt;, exp:&lt;mean&gt;, lognormal:&lt;median&gt;:&lt;sigma&gt;
+ *
+ * @author Aleksandr Gorshenin
+ */
+public abstract class LatencyDistribution {
+    public abstract long nextNs();
+
+    public static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().toLowerCase().split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    return new Fixed(microsToNanos(parts[1]));
+                case "uniform":
+                    return new Uniform(microsToNanos(parts[1]), microsToNanos(parts[2]));
+                case "exp":
+                    return new Exponential(microsToNanos(parts[1]));
+                case "lognormal":
+                    return new LogNormal(microsToNanos(parts[1]), Double.parseDouble(parts[2]));
+                default:
+                    break;
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException ex) {
+            throw new IllegalArgumentException("Wrong latency distribution " + spec, ex);
+        }
+        throw new IllegalArgumentException("Unknown latency distribution " + spec);
+    }
+
+    private static long microsToNanos(String value) {
+        return (long)(1000 * Double.parseDouble(value));
+    }
+
+    private static class Fixed extends LatencyDistribution {
+        private final long ns;
+
+        Fixed(long ns) {
+            this.ns = ns;
+        }
+
+        @Override
+        public long nextNs() {
+            return ns;
+        }
+    }
+
+    private static class Uniform extends LatencyDistribution {
+        private final long minNs;
+        private final long maxNs;
+
+        Uniform(long minNs, long maxNs) {
+            this.minNs = minNs;
+            this.maxNs = Math.max(minNs + 1, maxNs);
+        }
+
+        @Override
+        public long nextNs() {
+            return ThreadLocalRandom.current().nextLong(minNs, maxNs);
+        }
+    }
+
+    private static class Exponential extends LatencyDistribution {
+        private final double meanNs;
+
+        Exponential(long meanNs) {
+            this.meanNs = meanNs;
+        }
+
+        @Override
+        public long nextNs() {
+            return (long)(-meanNs * Math.log(1d - ThreadLocalRandom.current().nextDouble()));
+        }
+    }
+
+    private static class LogNormal extends LatencyDistribution {
+        private final double mu;
+        private final double sigma;
+
+        LogNormal(long medianNs, double sigma) {
+            this.mu = Math.log(Math.max(1, medianNs));
+            this.sigma = sigma;
+        }
+
+        @Override
+        public long nextNs() {
+            return (long)Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package tech.ydb.performance.runtime;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+
+/**
+ * Concurrent open addressing hash table of records with UUID keys. Keys and payload locations are stored in
+ * one primitive array, payloads are stored in off-heap chunks. Readers never take locks. Payload of the same
+ * length is overwritten in place, memory of payloads replaced by another length is not reused.
+ *
+ * @author Aleksandr Gorshenin
+ */
+class OffHeapRecordStore {
+    private static final int CHUNK_SIZE = 64 * 1024 * 1024;
+    private static final int LENGTH_SIZE = 4;
+    private static final double MAX_LOAD_FACTOR = 0.9d;
+    // scan index groups slots by the high bits of key
+    private static final int SCAN_BUCKET_BITS = 16;
+
+    private final int mask;
+    private final int maxSize;
+    // three longs per slot: most significant bits of key, least significant bits of key, payload location
+    private final AtomicLongArray slots;
+    private final AtomicInteger size = new AtomicInteger(0);
+
+    // chunk with index zero is never used, so zero location means empty slot
+    private volatile ByteBuffer[] chunks = new ByteBuffer[1];
+    private int currentChunk = 0;
+
+    private volatile ScanIndex scanIndex = null;
+
+    OffHeapRecordStore(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(1024, expectedSize * 2 - 1)) << 1;
+        this.mask = capacity - 1;
+        this.maxSize = (int)(capacity * MAX_LOAD_FACTOR);
+        this.slots = new AtomicLongArray(3 * capacity);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public void put(String uuid, byte[] payload) {
+        UUID key = UUID.fromString(uuid);
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        if (msb == 0) {
+            throw new IllegalArgumentException("Unsupported key " + uuid);
+        }
+
+        // payload is written before the slot is claimed, readers of the claimed slot wait for its location
+        long location = 0;
+        int idx = hash(msb, lsb) & mask;
+        for (int probe = 0; probe <= mask; probe += 1) {
+            int base = 3 * idx;
+            long slotMsb = slots.get(base);
+            if (slotMsb == 0) {
+                if (size.get() >= maxSize) {
+                    throw new IllegalStateException("In-memory store is full");
+                }
+                if (location == 0) {
+                    location = write(payload);
+                }
+                if (slots.compareAndSet(base, 0, msb)) {
+                    slots.set(base + 1, lsb);
+                    slots.set(base + 2, location);
+                    size.incrementAndGet();
+                    return;
+                }
+                slotMsb = slots.get(base);
+            }
+
+            if (slotMsb == msb && awaitLsb(base) == lsb) {
+                store(base, payload);
+                return;
+            }
+
+            idx = (idx + 1) & mask;
+        }
+
+        throw new IllegalStateException("In-memory store is full");
+    }
+
+    /**
+     * Replaces payload of the existing record
+     * @return false if there is no record with this uuid
+     */
+    public boolean replace(String uuid, byte[] payload) {
+        UUID key = UUID.fromString(uuid);
+        int base = find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        if (base < 0) {
+            return false;
+        }
+
+        store(base, payload);
+        return true;
+    }
+
+    // updates of the workloads rewrite the payload of the same length, such payload is overwritten in place
+    private void store(int base, byte[] payload) {
+        long location = slots.get(base + 2);
+        ByteBuffer buffer = chunks[(int)(location >>> 32)].duplicate();
+        buffer.position((int)location);
+        if (buffer.getInt() == payload.length) {
+            buffer.put(payload);
+        } else {
+            slots.set(base + 2, write(payload));
+        }
+    }
+
+    public byte[] get(String uuid) {
+        UUID key = UUID.fromString(uuid);
+        int base = find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        return base < 0 ? null : read(slots.get(base + 2));
+    }
+
+    /**
+     * Visits all records with keys in range [from, to), null bound means no bound. Text uuids are ordered
+     * as unsigned pairs of their bits. Slots are routed to buckets by the high bits of key in one pass over
+     * the table, which is shared by all ranges until the count of records changes, so each range visits
+     * only its own buckets.
+     */
+    public void scan(UUID from, UUID to, BiConsumer<UUID, byte[]> consumer) {
+        ScanIndex index = scanIndex();
+        int first = from != null ? bucket(from.getMostSignificantBits()) : 0;
+        int last = to != null ? bucket(to.getMostSignificantBits()) : index.buckets.length - 1;
+        for (int bucket = first; bucket <= last; bucket += 1) {
+            for (int base: index.buckets[bucket]) {
+                long msb = slots.get(base);
+                long lsb = slots.get(base + 1);
+                if (from != null && compare(msb, lsb, from) < 0) {
+                    continue;
+                }
+                if (to != null && compare(msb, lsb, to) >= 0) {
+                    continue;
+                }
+                consumer.accept(new UUID(msb, lsb), read(slots.get(base + 2)));
+            }
+        }
+    }
+
+    private synchronized ScanIndex scanIndex() {
+        ScanIndex index = scanIndex;
+        int count = size.get();
+        if (index != null && index.size == count) {
+            return index;
+        }
+
+        int[] counts = new int[1 << SCAN_BUCKET_BITS];
+        int[] bases = new int[count];
+        int[] bucketOf = new int[count];
+        int visible = 0;
+        for (int idx = 0; idx <= mask && visible < count; idx += 1) {
+            int base = 3 * idx;
+            if (slots.get(base + 2) == 0) {
+                continue;
+            }
+            int bucket = bucket(slots.get(base));
+            bases[visible] = base;
+            bucketOf[visible] = bucket;
+            counts[bucket] += 1;
+            visible += 1;
+        }
+
+        int[][] buckets = new int[counts.length][];
+        for (int bucket = 0; bucket < counts.length; bucket += 1) {
+            buckets[bucket] = new int[counts[bucket]];
+            counts[bucket] = 0;
+        }
+        for (int idx = 0; idx < visible; idx += 1) {
+            int bucket = bucketOf[idx];
+            buckets[bucket][counts[bucket]++] = bases[idx];
+        }
+
+        scanIndex = new ScanIndex(count, buckets);
+        return scanIndex;
+    }
+
+    private static int bucket(long msb) {
+        return (int)(msb >>> (Long.SIZE - SCAN_BUCKET_BITS));
+    }
+
+    private static class ScanIndex {
+        private final int size;
+        private final int[][] buckets;
+
+        ScanIndex(int size, int[][] buckets) {
+            this.size = size;
+            this.buckets = buckets;
+        }
+    }
+
+    private static int compare(long msb, long lsb, UUID other) {
+        int cmp = Long.compareUnsigned(msb, other.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compareUnsigned(lsb, other.getLeastSignificantBits());
+    }
+
+    // returns base index of the slot with the key or -1 if key is absent
+    private int find(long msb, long lsb) {
+        int idx = hash(msb, lsb) & mask;
+        for (int probe = 0; probe <= mask; probe += 1) {
+            int base = 3 * idx;
+            long slotMsb = slots.get(base);
+            if (slotMsb == 0) {
+                return -1;
+            }
+
+            if (slotMsb == msb && awaitLsb(base) == lsb) {
+                return base;
+            }
+
+            idx = (idx + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    // slot is claimed by msb first, lsb becomes visible after publication of the location
+    private long awaitLsb(int base) {
+        while (slots.get(base + 2) == 0) {
+            Thread.onSpinWait();
+        }
+        return slots.get(base + 1);
+    }
+
+    private long write(byte[] payload) {
+        long location = allocate(LENGTH_SIZE + payload.length);
+        ByteBuffer buffer = chunks[(int)(location >>> 32)].duplicate();
+        buffer.position((int)location);
+        buffer.putInt(payload.length);
+        buffer.put(payload);
+        return location;
+    }
+
+    private byte[] read(long location) {
+        ByteBuffer buffer = chunks[(int)(location >>> 32)].duplicate();
+        buffer.position((int)location);
+        byte[] payload = new byte[buffer.getInt()];
+        buffer.get(payload);
+        return payload;
+    }
+
+    private synchronized long allocate(int length) {
+        ByteBuffer chunk = chunks[currentChunk];
+        if (chunk == null || chunk.remaining() < length) {
+            chunk = ByteBuffer.allocateDirect(Math.max(CHUNK_SIZE, length));
+            ByteBuffer[] extended = Arrays.copyOf(chunks, chunks.length + 1);
+            extended[chunks.length] = chunk;
+            currentChunk = chunks.length;
+            chunks = extended;
+        }
+
+        int offset = chunk.position();
+        chunk.position(offset + length);
+        return ((long)currentChunk << 32) | offset;
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32));
+    }
+}
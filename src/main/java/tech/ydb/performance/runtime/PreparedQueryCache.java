@@ -0,0 +1,35 @@
+package tech.ydb.performance.runtime;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prepared queries by session id. Sessions closed or evicted by the pool are never reported to the runtime,
+ * so the cache is limited and is cleared at once when it is full, such sessions just prepare the query again.
+ *
+ * @author Aleksandr Gorshenin
+ * @param <Q> type of prepared query
+ */
+class PreparedQueryCache<Q> {
+    private final Map<String, Q> queries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    PreparedQueryCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    Q get(String sessionId) {
+        return queries.get(sessionId);
+    }
+
+    void put(String sessionId, Q query) {
+        if (queries.size() >= maxSize) {
+            queries.clear();
+        }
+        queries.put(sessionId, query);
+    }
+
+    void remove(String sessionId) {
+        queries.remove(sessionId);
+    }
+}
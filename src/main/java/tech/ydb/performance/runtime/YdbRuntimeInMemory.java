@@ -0,0 +1,216 @@
+package tech.ydb.performance.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.performance.AppConfig;
+import tech.ydb.performance.api.AppRecord;
+import tech.ydb.performance.api.YdbRuntime;
+
+/**
+ * In-process stand-in for YDB without network. Records are kept in the off-heap store, every response is
+ * delayed by the configured latency distribution and may fail with the configured probability.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class YdbRuntimeInMemory implements YdbRuntime {
+    private final static Logger logger = LoggerFactory.getLogger(YdbRuntimeInMemory.class);
+
+    private final OffHeapRecordStore store;
+    private final LatencyDistribution requestLatency;
+    private final LatencyDistribution sessionLatency;
+    private final double errorRate;
+    private final ScheduledExecutorService scheduler;
+
+    public YdbRuntimeInMemory(AppConfig config) {
+        this.store = new OffHeapRecordStore(config.recordCount());
+        this.requestLatency = LatencyDistribution.parse(config.inMemoryLatency());
+        this.sessionLatency = LatencyDistribution.parse(config.inMemorySessionLatency());
+        this.errorRate = config.inMemoryErrorRate();
+        this.scheduler = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread t = new Thread(r, "in-memory-ydb");
+            t.setDaemon(true);
+            return t;
+        });
+
+        logger.info("in-memory runtime with request latency {}, session latency {} and error rate {}",
+                config.inMemoryLatency(), config.inMemorySessionLatency(), errorRate);
+
+        if (config.inMemoryPreload()) {
+            logger.info("preload {} records...", config.recordCount());
+            LongStream.range(0, config.recordCount()).parallel().forEach(idx -> {
+                AppRecord record = AppRecord.createByIndex(idx, config.recordSize());
+                store.put(record.uuid(), record.payload());
+            });
+        }
+    }
+
+    @Override
+    public void createTable() {
+        logger.info("in-memory table is ready, {} records", store.size());
+    }
+
+    @Override
+    public CompletableFuture<YdbSession> createSession() {
+        return delayed(sessionLatency, () -> {
+            if (injectError()) {
+                throw new IllegalStateException("injected session error");
+            }
+            return new SessionImpl();
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> bulkUpsert(List<AppRecord> records) {
+        return delayed(requestLatency, () -> {
+            if (injectError()) {
+                return Boolean.FALSE;
+            }
+            records.forEach(r -> store.put(r.uuid(), r.payload()));
+            return Boolean.TRUE;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> scan(ScanMode mode, String fromUuid, String toUuid, ScanConsumer consumer) {
+        // both modes are the same in memory, the whole range is streamed after one delay
+        UUID from = fromUuid != null ? UUID.fromString(fromUuid) : null;
+        UUID to = toUuid != null ? UUID.fromString(toUuid) : null;
+        return delayed(requestLatency, () -> {
+            if (injectError()) {
+                return Boolean.FALSE;
+            }
+            store.scan(from, to, (uuid, payload) -> consumer.accept(uuid.toString(), payload));
+            return Boolean.TRUE;
+        });
+    }
+
+    @Override
+    public String version() {
+        return "in-memory";
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private boolean injectError() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    private <T> CompletableFuture<T> delayed(LatencyDistribution latency, Supplier<T> action) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long delayNs = latency.nextNs();
+        if (delayNs <= 0) {
+            complete(future, action);
+        } else {
+            scheduler.schedule(() -> complete(future, action), delayNs, TimeUnit.NANOSECONDS);
+        }
+        return future;
+    }
+
+    private static <T> void complete(CompletableFuture<T> future, Supplier<T> action) {
+        try {
+            future.complete(action.get());
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+        }
+    }
+
+    private class SessionImpl implements YdbSession {
+        // injected request errors are reported as BAD_SESSION
+        private volatile boolean broken = false;
+
+        @Override
+        public boolean isReadPrepared() {
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> prepareRead() {
+            // there is no query compilation in memory
+            return CompletableFuture.completedFuture(Boolean.TRUE);
+        }
+
+        @Override
+        public CompletableFuture<AppRecord> read(String uuid) {
+            return delayed(requestLatency, () -> {
+                if (injectError()) {
+                    broken = true;
+                    throw new IllegalStateException("injected read error");
+                }
+
+                byte[] payload = store.get(uuid);
+                if (payload == null) {
+                    logger.warn("got result set without rows");
+                    return null;
+                }
+                return new AppRecord(uuid, payload);
+            });
+        }
+
+        @Override
+        public CompletableFuture<List<AppRecord>> readBatch(List<String> uuids) {
+            return delayed(requestLatency, () -> {
+                if (injectError()) {
+                    broken = true;
+                    throw new IllegalStateException("injected read error");
+                }
+
+                List<AppRecord> records = new ArrayList<>(uuids.size());
+                for (String uuid: uuids) {
+                    byte[] payload = store.get(uuid);
+                    if (payload != null) {
+                        records.add(new AppRecord(uuid, payload));
+                    }
+                }
+                return records;
+            });
+        }
+
+        @Override
+        public CompletableFuture<Boolean> upsert(AppRecord record) {
+            return delayed(requestLatency, () -> {
+                if (injectError()) {
+                    broken = true;
+                    return Boolean.FALSE;
+                }
+                store.put(record.uuid(), record.payload());
+                return Boolean.TRUE;
+            });
+        }
+
+        @Override
+        public CompletableFuture<Boolean> update(AppRecord record) {
+            return delayed(requestLatency, () -> {
+                if (injectError()) {
+                    broken = true;
+                    return Boolean.FALSE;
+                }
+                return store.replace(record.uuid(), record.payload());
+            });
+        }
+
+        @Override
+        public boolean isBroken() {
+            return broken;
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+}
@@ -1,25 +1,33 @@
 package tech.ydb.performance.runtime;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+import com.google.protobuf.UnsafeByteOperations;
 import com.yandex.ydb.auth.iam.CloudAuthHelper;
 import com.yandex.ydb.core.Result;
 import com.yandex.ydb.core.Status;
+import com.yandex.ydb.core.StatusCode;
 import com.yandex.ydb.core.grpc.GrpcTransport;
 import com.yandex.ydb.table.Session;
 import com.yandex.ydb.table.SessionRetryContext;
 import com.yandex.ydb.table.TableClient;
 import com.yandex.ydb.table.description.TableDescription;
+import com.yandex.ydb.table.query.DataQuery;
 import com.yandex.ydb.table.query.DataQueryResult;
 import com.yandex.ydb.table.query.Params;
 import com.yandex.ydb.table.result.ResultSetReader;
 import com.yandex.ydb.table.rpc.grpc.GrpcTableRpc;
 import com.yandex.ydb.table.settings.BulkUpsertSettings;
+import com.yandex.ydb.table.settings.ExecuteDataQuerySettings;
+import com.yandex.ydb.table.settings.ExecuteScanQuerySettings;
+import com.yandex.ydb.table.settings.ReadTableSettings;
 import com.yandex.ydb.table.transaction.TxControl;
 import com.yandex.ydb.table.values.ListType;
+import com.yandex.ydb.table.values.ListValue;
 import com.yandex.ydb.table.values.PrimitiveType;
 import com.yandex.ydb.table.values.PrimitiveValue;
 import com.yandex.ydb.table.values.StructType;
@@ -38,14 +46,32 @@ import tech.ydb.performance.api.YdbRuntime;
 public class YdbRuntimeV1 implements YdbRuntime {
     private final static Logger logger = LoggerFactory.getLogger(YdbRuntimeV1.class);
 
+    private final static StructType RECORD_TYPE = StructType.of(
+            "uuid", PrimitiveType.utf8(),
+            "payload", PrimitiveType.string()
+    );
+    private final static ListType RECORD_LIST_TYPE = ListType.of(RECORD_TYPE);
+
     private final String tableName;
     private final String tablePath;
     private final GrpcTransport transport;
     private final TableClient tableClient;
     private final SessionRetryContext retryCtx;
+    private final QueryMode queryMode;
+    private final ExecuteDataQuerySettings executeSettings = new ExecuteDataQuerySettings();
+    private final String readQuery;
+    private final String readBatchQuery;
+    private final String upsertQuery;
+    private final String scanRangeQuery;
+    private final String scanTailQuery;
+    private final String updateQuery;
+    // prepared read queries by session id, sessions are reused by the pool
+    private final PreparedQueryCache<DataQuery> preparedReads;
 
     public YdbRuntimeV1(AppConfig config) {
         this.tableName = config.tableName();
+        // the pool keeps up to max(2, threads) sessions, evicted sessions are replaced by the new ones
+        this.preparedReads = new PreparedQueryCache<>(4 * Math.max(2, config.threadsCount()));
         this.transport = GrpcTransport.forConnectionString(config.endpoint())
                 .withAuthProvider(CloudAuthHelper.getAuthProviderFromEnviron())
                 .build();
@@ -55,6 +81,22 @@ public class YdbRuntimeV1 implements YdbRuntime {
                 .build();
         this.retryCtx = SessionRetryContext.create(tableClient).build();
         this.tablePath = transport.getDatabase() + "/" + tableName;
+
+        this.queryMode = config.queryMode();
+        if (queryMode != QueryMode.TEXT) {
+            executeSettings.keepInQueryCache();
+        }
+        this.readQuery = "DECLARE $uuid as Text; SELECT uuid, payload FROM " + tableName + " WHERE uuid = $uuid;";
+        this.readBatchQuery = "DECLARE $keys as List<Text>; "
+                + "SELECT uuid, payload FROM " + tableName + " WHERE uuid IN $keys;";
+        this.scanRangeQuery = "DECLARE $from as Text; DECLARE $to as Text; "
+                + "SELECT uuid, payload FROM " + tableName + " WHERE uuid >= $from AND uuid < $to;";
+        this.scanTailQuery = "DECLARE $from as Text; "
+                + "SELECT uuid, payload FROM " + tableName + " WHERE uuid >= $from;";
+        this.upsertQuery = "DECLARE $uuid as Text; DECLARE $payload as String; "
+                + "UPSERT INTO " + tableName + " (uuid, payload) VALUES ($uuid, $payload);";
+        this.updateQuery = "DECLARE $uuid as Text; DECLARE $payload as String; "
+                + "UPDATE " + tableName + " SET payload = $payload WHERE uuid = $uuid;";
     }
 
     @Override
@@ -75,6 +117,12 @@ public class YdbRuntimeV1 implements YdbRuntime {
                 .expect("can't create session"));
     }
 
+    @Override
+    public String version() {
+        String version = TableClient.class.getPackage().getImplementationVersion();
+        return "ydb-sdk-v1 " + (version != null ? version : "unknown");
+    }
+
     @Override
     public void close() {
         tableClient.close();
@@ -83,37 +131,184 @@ public class YdbRuntimeV1 implements YdbRuntime {
 
     @Override
     public CompletableFuture<Boolean> bulkUpsert(List<AppRecord> records) {
-        StructType type = StructType.of(
-                "uuid", PrimitiveType.utf8(),
-                "payload", PrimitiveType.string()
-        );
-
-        List<Value> values = records.stream().map(r -> type.newValue(
-                "uuid", PrimitiveValue.utf8(r.uuid()),
-                "payload", PrimitiveValue.string(r.payload())
-        )).collect(Collectors.toList());
-
+        ListValue rows = recordsToValue(records);
         BulkUpsertSettings settings = new BulkUpsertSettings();
 
         return retryCtx
-                .supplyStatus(s -> s.executeBulkUpsert(tablePath, ListType.of(type).newValue(values), settings))
+                .supplyStatus(s -> s.executeBulkUpsert(tablePath, rows, settings))
                 .thenApply(Status::isSuccess);
     }
 
+    @Override
+    public CompletableFuture<Boolean> scan(ScanMode mode, String fromUuid, String toUuid, ScanConsumer consumer) {
+        return tableClient.getOrCreateSession(Duration.ofSeconds(5)).thenCompose(r -> {
+            Session session = r.expect("can't create session");
+            CompletableFuture<Status> stream;
+            if (mode == ScanMode.SCAN_QUERY) {
+                Params params = toUuid != null
+                        ? Params.of("$from", PrimitiveValue.utf8(fromUuid),
+                                "$to", PrimitiveValue.utf8(toUuid))
+                        : Params.of("$from", PrimitiveValue.utf8(fromUuid));
+                String query = toUuid != null ? scanRangeQuery : scanTailQuery;
+                ExecuteScanQuerySettings settings = ExecuteScanQuerySettings.newBuilder().build();
+                stream = session.executeScanQuery(query, params, settings, rs -> readPart(rs, consumer));
+            } else {
+                ReadTableSettings.Builder settings = ReadTableSettings.newBuilder()
+                        .orderedRead(false)
+                        .columns("uuid", "payload")
+                        .fromKeyInclusive(PrimitiveValue.utf8(fromUuid));
+                if (toUuid != null) {
+                    settings.toKeyExclusive(PrimitiveValue.utf8(toUuid));
+                }
+                stream = session.readTable(tablePath, settings.build(), rs -> readPart(rs, consumer));
+            }
+
+            return stream.whenComplete((status, th) -> session.release()).thenApply(status -> {
+                if (!status.isSuccess()) {
+                    logger.warn("scan failed with {} status", status.getCode());
+                    return false;
+                }
+                return true;
+            });
+        });
+    }
+
+    // rows are passed to the consumer part by part, the stream is never collected
+    private static void readPart(ResultSetReader rs, ScanConsumer consumer) {
+        int uuidIdx = rs.getColumnIndex("uuid");
+        int payloadIdx = rs.getColumnIndex("payload");
+        while (rs.next()) {
+            consumer.accept(rs.getColumn(uuidIdx).getUtf8(), rs.getColumn(payloadIdx).getString());
+        }
+    }
+
+    // payload of record is immutable, ByteString wraps it without copying and is sent to the proto as is
+    static ListValue recordsToValue(List<AppRecord> records) {
+        List<Value> values = records.stream().map(r -> RECORD_TYPE.newValue(
+                "uuid", PrimitiveValue.utf8(r.uuid()),
+                "payload", PrimitiveValue.string(UnsafeByteOperations.unsafeWrap(r.payload()))
+        )).collect(Collectors.toList());
+
+        return RECORD_LIST_TYPE.newValue(values);
+    }
+
     private class SessionImpl implements YdbSession {
         private final Session session;
+        private volatile boolean broken = false;
+        private volatile DataQuery preparedRead;
 
         public SessionImpl(Session session) {
             this.session = session;
+            this.preparedRead = queryMode == QueryMode.PREPARED ? preparedReads.get(session.getId()) : null;
+        }
+
+        @Override
+        public boolean isReadPrepared() {
+            return queryMode != QueryMode.PREPARED || preparedRead != null;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> prepareRead() {
+            if (isReadPrepared()) {
+                return CompletableFuture.completedFuture(Boolean.TRUE);
+            }
+
+            return session.prepareDataQuery(readQuery).thenApply(result -> {
+                if (!result.isSuccess()) {
+                    logger.warn("can't prepare read query, got {} status", result.getCode());
+                    checkStatus(result.getCode());
+                    return false;
+                }
+                preparedRead = result.expect("");
+                preparedReads.put(session.getId(), preparedRead);
+                return true;
+            });
         }
 
         @Override
         public CompletableFuture<AppRecord> read(String uuid) {
-            String query = "DECLARE $uuid as Text; SELECT uuid, payload FROM " + tableName + " WHERE uuid = $uuid;";
             Params params = Params.of("$uuid", PrimitiveValue.utf8(uuid));
 
-            return session.executeDataQuery(query, TxControl.serializableRw(), params)
-                    .thenApply(this::readRecord);
+            if (queryMode != QueryMode.PREPARED) {
+                return session.executeDataQuery(readQuery, TxControl.serializableRw(), params, executeSettings)
+                        .thenApply(this::readRecord);
+            }
+
+            DataQuery query = preparedRead;
+            if (query == null) {
+                return CompletableFuture.failedFuture(new IllegalStateException("read query isn't prepared"));
+            }
+            return query.execute(TxControl.serializableRw(), params, executeSettings).thenApply(result -> {
+                if (result != null && !result.isSuccess()) {
+                    // session may be broken, prepare the query again on the next read
+                    preparedRead = null;
+                    preparedReads.remove(session.getId());
+                }
+                return readRecord(result);
+            });
+        }
+
+        @Override
+        public CompletableFuture<List<AppRecord>> readBatch(List<String> uuids) {
+            List<Value> keys = uuids.stream().map(PrimitiveValue::utf8).collect(Collectors.toList());
+            Params params = Params.of("$keys", ListType.of(PrimitiveType.utf8()).newValue(keys));
+
+            return session.executeDataQuery(readBatchQuery, TxControl.serializableRw(), params, executeSettings)
+                    .thenApply(this::readRecords);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> upsert(AppRecord record) {
+            return write(upsertQuery, record);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> update(AppRecord record) {
+            return write(updateQuery, record);
+        }
+
+        private CompletableFuture<Boolean> write(String query, AppRecord record) {
+            Params params = Params.of(
+                    "$uuid", PrimitiveValue.utf8(record.uuid()),
+                    "$payload", PrimitiveValue.string(UnsafeByteOperations.unsafeWrap(record.payload()))
+            );
+
+            return session.executeDataQuery(query, TxControl.serializableRw(), params, executeSettings)
+                    .thenApply(result -> {
+                        if (!result.isSuccess()) {
+                            logger.warn("got {} status ", result.getCode());
+                            checkStatus(result.getCode());
+                            return false;
+                        }
+                        return true;
+                    });
+        }
+
+        private List<AppRecord> readRecords(Result<DataQueryResult> result) {
+            if (result == null) {
+                logger.warn("got null data query result");
+                return null;
+            }
+
+            if (!result.isSuccess()) {
+                logger.warn("got {} status ", result.getCode());
+                checkStatus(result.getCode());
+                return null;
+            }
+
+            List<AppRecord> records = new ArrayList<>();
+            if (result.expect("").getResultSetCount() == 0) {
+                logger.warn("got empty result set");
+                return records;
+            }
+
+            ResultSetReader rs = result.expect("").getResultSet(0);
+            while (rs.next()) {
+                String uuid = rs.getColumn("uuid").getUtf8();
+                byte[] payload = rs.getColumn("payload").getString();
+                records.add(new AppRecord(uuid, payload));
+            }
+            return records;
         }
 
         private AppRecord readRecord(Result<DataQueryResult> result) {
@@ -124,6 +319,7 @@ public class YdbRuntimeV1 implements YdbRuntime {
 
             if (!result.isSuccess()) {
                 logger.warn("got {} status ", result.getCode());
+                checkStatus(result.getCode());
                 return null;
             }
 
@@ -143,8 +339,24 @@ public class YdbRuntimeV1 implements YdbRuntime {
             return new AppRecord(uuid, payload);
         }
 
+        private void checkStatus(StatusCode code) {
+            if (code == StatusCode.BAD_SESSION || code == StatusCode.SESSION_BUSY
+                    || code == StatusCode.SESSION_EXPIRED) {
+                broken = true;
+            }
+        }
+
+        @Override
+        public boolean isBroken() {
+            return broken;
+        }
+
         @Override
         public void close() {
+            if (broken) {
+                // the pool drops the broken session, its prepared query is never used again
+                preparedReads.remove(session.getId());
+            }
             session.release();
         }
     }
@@ -1,16 +1,19 @@
 package tech.ydb.performance.runtime;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+import com.google.protobuf.UnsafeByteOperations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import tech.ydb.auth.iam.CloudAuthHelper;
 import tech.ydb.core.Result;
 import tech.ydb.core.Status;
+import tech.ydb.core.StatusCode;
 import tech.ydb.core.grpc.GrpcTransport;
 import tech.ydb.performance.AppConfig;
 import tech.ydb.performance.api.AppRecord;
@@ -19,11 +22,16 @@ import tech.ydb.table.Session;
 import tech.ydb.table.SessionRetryContext;
 import tech.ydb.table.TableClient;
 import tech.ydb.table.description.TableDescription;
+import tech.ydb.table.query.DataQuery;
 import tech.ydb.table.query.DataQueryResult;
 import tech.ydb.table.query.Params;
 import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.settings.ExecuteDataQuerySettings;
+import tech.ydb.table.settings.ExecuteScanQuerySettings;
+import tech.ydb.table.settings.ReadTableSettings;
 import tech.ydb.table.transaction.TxControl;
 import tech.ydb.table.values.ListType;
+import tech.ydb.table.values.ListValue;
 import tech.ydb.table.values.PrimitiveType;
 import tech.ydb.table.values.PrimitiveValue;
 import tech.ydb.table.values.StructType;
@@ -36,14 +44,32 @@ import tech.ydb.table.values.Value;
 public class YdbRuntimeV2 implements YdbRuntime {
     private final static Logger logger = LoggerFactory.getLogger(YdbRuntimeV2.class);
 
+    private final static StructType RECORD_TYPE = StructType.of(
+            "uuid", PrimitiveType.Text,
+            "payload", PrimitiveType.Bytes
+    );
+    private final static ListType RECORD_LIST_TYPE = ListType.of(RECORD_TYPE);
+
     private final String tableName;
     private final String tablePath;
     private final GrpcTransport transport;
     private final TableClient tableClient;
     private final SessionRetryContext retryCtx;
+    private final QueryMode queryMode;
+    private final ExecuteDataQuerySettings executeSettings = new ExecuteDataQuerySettings();
+    private final String readQuery;
+    private final String readBatchQuery;
+    private final String upsertQuery;
+    private final String scanRangeQuery;
+    private final String scanTailQuery;
+    private final String updateQuery;
+    // prepared read queries by session id, sessions are reused by the pool
+    private final PreparedQueryCache<DataQuery> preparedReads;
 
     public YdbRuntimeV2(AppConfig config) {
         this.tableName = config.tableName();
+        // the pool keeps up to max(2, threads) sessions, evicted sessions are replaced by the new ones
+        this.preparedReads = new PreparedQueryCache<>(4 * Math.max(2, config.threadsCount()));
         this.transport = GrpcTransport.forConnectionString(config.endpoint())
                 .withAuthProvider(CloudAuthHelper.getAuthProviderFromEnviron())
                 .build();
@@ -53,6 +79,22 @@ public class YdbRuntimeV2 implements YdbRuntime {
                 .build();
         this.retryCtx = SessionRetryContext.create(tableClient).build();
         this.tablePath = transport.getDatabase() + "/" + tableName;
+
+        this.queryMode = config.queryMode();
+        if (queryMode != QueryMode.TEXT) {
+            executeSettings.keepInQueryCache();
+        }
+        this.readQuery = "DECLARE $uuid as Text; SELECT uuid, payload FROM " + tableName + " WHERE uuid = $uuid;";
+        this.readBatchQuery = "DECLARE $keys as List<Text>; "
+                + "SELECT uuid, payload FROM " + tableName + " WHERE uuid IN $keys;";
+        this.scanRangeQuery = "DECLARE $from as Text; DECLARE $to as Text; "
+                + "SELECT uuid, payload FROM " + tableName + " WHERE uuid >= $from AND uuid < $to;";
+        this.scanTailQuery = "DECLARE $from as Text; "
+                + "SELECT uuid, payload FROM " + tableName + " WHERE uuid >= $from;";
+        this.upsertQuery = "DECLARE $uuid as Text; DECLARE $payload as String; "
+                + "UPSERT INTO " + tableName + " (uuid, payload) VALUES ($uuid, $payload);";
+        this.updateQuery = "DECLARE $uuid as Text; DECLARE $payload as String; "
+                + "UPDATE " + tableName + " SET payload = $payload WHERE uuid = $uuid;";
     }
 
     @Override
@@ -75,18 +117,68 @@ public class YdbRuntimeV2 implements YdbRuntime {
 
     @Override
     public CompletableFuture<Boolean> bulkUpsert(List<AppRecord> records) {
-        StructType type = StructType.of(
-                "uuid", PrimitiveType.Text,
-                "payload", PrimitiveType.Bytes
-        );
+        ListValue rows = recordsToValue(records);
+        return retryCtx.supplyStatus(s -> s.executeBulkUpsert(tablePath, rows))
+                .thenApply(Status::isSuccess);
+    }
 
-        List<Value<?>> values = records.stream().map(r -> type.newValue(
+    @Override
+    public CompletableFuture<Boolean> scan(ScanMode mode, String fromUuid, String toUuid, ScanConsumer consumer) {
+        return tableClient.createSession(Duration.ofSeconds(5)).thenCompose(r -> {
+            Session session = r.getValue();
+            CompletableFuture<Status> stream;
+            if (mode == ScanMode.SCAN_QUERY) {
+                Params params = toUuid != null
+                        ? Params.of("$from", PrimitiveValue.newText(fromUuid),
+                                "$to", PrimitiveValue.newText(toUuid))
+                        : Params.of("$from", PrimitiveValue.newText(fromUuid));
+                String query = toUuid != null ? scanRangeQuery : scanTailQuery;
+                ExecuteScanQuerySettings settings = ExecuteScanQuerySettings.newBuilder().build();
+                stream = session.executeScanQuery(query, params, settings, rs -> readPart(rs, consumer));
+            } else {
+                ReadTableSettings.Builder settings = ReadTableSettings.newBuilder()
+                        .orderedRead(false)
+                        .columns("uuid", "payload")
+                        .fromKeyInclusive(PrimitiveValue.newText(fromUuid));
+                if (toUuid != null) {
+                    settings.toKeyExclusive(PrimitiveValue.newText(toUuid));
+                }
+                stream = session.readTable(tablePath, settings.build(), rs -> readPart(rs, consumer));
+            }
+
+            return stream.whenComplete((status, th) -> session.close()).thenApply(status -> {
+                if (!status.isSuccess()) {
+                    logger.warn("scan failed with {} status", status.getCode());
+                    return false;
+                }
+                return true;
+            });
+        });
+    }
+
+    // rows are passed to the consumer part by part, the stream is never collected
+    private static void readPart(ResultSetReader rs, ScanConsumer consumer) {
+        int uuidIdx = rs.getColumnIndex("uuid");
+        int payloadIdx = rs.getColumnIndex("payload");
+        while (rs.next()) {
+            consumer.accept(rs.getColumn(uuidIdx).getText(), rs.getColumn(payloadIdx).getBytes());
+        }
+    }
+
+    // payload of record is immutable, ByteString wraps it without copying and is sent to the proto as is
+    static ListValue recordsToValue(List<AppRecord> records) {
+        List<Value<?>> values = records.stream().map(r -> RECORD_TYPE.newValue(
                 "uuid", PrimitiveValue.newText(r.uuid()),
-                "payload", PrimitiveValue.newBytes(r.payload())
+                "payload", PrimitiveValue.newBytes(UnsafeByteOperations.unsafeWrap(r.payload()))
         )).collect(Collectors.toList());
 
-        return retryCtx.supplyStatus(s -> s.executeBulkUpsert(tablePath, ListType.of(type).newValue(values)))
-                .thenApply(Status::isSuccess);
+        return RECORD_LIST_TYPE.newValue(values);
+    }
+
+    @Override
+    public String version() {
+        String version = TableClient.class.getPackage().getImplementationVersion();
+        return "ydb-sdk-v2 " + (version != null ? version : "unknown");
     }
 
     @Override
@@ -97,18 +189,121 @@ public class YdbRuntimeV2 implements YdbRuntime {
 
     private class SessionImpl implements YdbSession {
         private final Session session;
+        private volatile boolean broken = false;
+        private volatile DataQuery preparedRead;
 
         public SessionImpl(Session session) {
             this.session = session;
+            this.preparedRead = queryMode == QueryMode.PREPARED ? preparedReads.get(session.getId()) : null;
+        }
+
+        @Override
+        public boolean isReadPrepared() {
+            return queryMode != QueryMode.PREPARED || preparedRead != null;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> prepareRead() {
+            if (isReadPrepared()) {
+                return CompletableFuture.completedFuture(Boolean.TRUE);
+            }
+
+            return session.prepareDataQuery(readQuery).thenApply(result -> {
+                if (!result.isSuccess()) {
+                    logger.warn("can't prepare read query, got {} status", result.getStatus().getCode());
+                    checkStatus(result.getStatus().getCode());
+                    return false;
+                }
+                preparedRead = result.getValue();
+                preparedReads.put(session.getId(), preparedRead);
+                return true;
+            });
         }
 
         @Override
         public CompletableFuture<AppRecord> read(String uuid) {
-            String query = "DECLARE $uuid as Text; SELECT uuid, payload FROM " + tableName + " WHERE uuid = $uuid;";
             Params params = Params.of("$uuid", PrimitiveValue.newText(uuid));
 
-            return session.executeDataQuery(query, TxControl.serializableRw(), params)
-                    .thenApply(this::readRecord);
+            if (queryMode != QueryMode.PREPARED) {
+                return session.executeDataQuery(readQuery, TxControl.serializableRw(), params, executeSettings)
+                        .thenApply(this::readRecord);
+            }
+
+            DataQuery query = preparedRead;
+            if (query == null) {
+                return CompletableFuture.failedFuture(new IllegalStateException("read query isn't prepared"));
+            }
+            return query.execute(TxControl.serializableRw(), params, executeSettings).thenApply(result -> {
+                if (result != null && !result.isSuccess()) {
+                    // session may be broken, prepare the query again on the next read
+                    preparedRead = null;
+                    preparedReads.remove(session.getId());
+                }
+                return readRecord(result);
+            });
+        }
+
+        @Override
+        public CompletableFuture<List<AppRecord>> readBatch(List<String> uuids) {
+            List<Value<?>> keys = uuids.stream().map(PrimitiveValue::newText).collect(Collectors.toList());
+            Params params = Params.of("$keys", ListType.of(PrimitiveType.Text).newValue(keys));
+
+            return session.executeDataQuery(readBatchQuery, TxControl.serializableRw(), params, executeSettings)
+                    .thenApply(this::readRecords);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> upsert(AppRecord record) {
+            return write(upsertQuery, record);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> update(AppRecord record) {
+            return write(updateQuery, record);
+        }
+
+        private CompletableFuture<Boolean> write(String query, AppRecord record) {
+            Params params = Params.of(
+                    "$uuid", PrimitiveValue.newText(record.uuid()),
+                    "$payload", PrimitiveValue.newBytes(UnsafeByteOperations.unsafeWrap(record.payload()))
+            );
+
+            return session.executeDataQuery(query, TxControl.serializableRw(), params, executeSettings)
+                    .thenApply(result -> {
+                        if (!result.isSuccess()) {
+                            logger.warn("got {} status ", result.getStatus().getCode());
+                            checkStatus(result.getStatus().getCode());
+                            return false;
+                        }
+                        return true;
+                    });
+        }
+
+        private List<AppRecord> readRecords(Result<DataQueryResult> result) {
+            if (result == null) {
+                logger.warn("got null data query result");
+                return null;
+            }
+
+            if (!result.isSuccess()) {
+                logger.warn("got {} status ", result.getStatus().getCode());
+                checkStatus(result.getStatus().getCode());
+                return null;
+            }
+
+            List<AppRecord> records = new ArrayList<>();
+            if (result.getValue().getResultSetCount() == 0) {
+                logger.warn("got empty result set");
+                return records;
+            }
+
+            ResultSetReader rs = result.getValue().getResultSet(0);
+            while (rs.next()) {
+                String uuid = rs.getColumn("uuid").getText();
+                byte[] payload = rs.getColumn("payload").getBytes();
+                records.add(new AppRecord(uuid, payload));
+            }
+            return records;
         }
 
         private AppRecord readRecord(Result<DataQueryResult> result) {
@@ -119,6 +314,7 @@ public class YdbRuntimeV2 implements YdbRuntime {
 
             if (!result.isSuccess()) {
                 logger.warn("got {} status ", result.getStatus().getCode());
+                checkStatus(result.getStatus().getCode());
                 return null;
             }
 
@@ -138,8 +334,24 @@ public class YdbRuntimeV2 implements YdbRuntime {
             return new AppRecord(uuid, payload);
         }
 
+        private void checkStatus(StatusCode code) {
+            if (code == StatusCode.BAD_SESSION || code == StatusCode.SESSION_BUSY
+                    || code == StatusCode.SESSION_EXPIRED) {
+                broken = true;
+            }
+        }
+
+        @Override
+        public boolean isBroken() {
+            return broken;
+        }
+
         @Override
         public void close() {
+            if (broken) {
+                // the pool drops the broken session, its prepared query is never used again
+                preparedReads.remove(session.getId());
+            }
             session.close();
         }
     }
@@ -0,0 +1,181 @@
+package tech.ydb.performance.workload;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.performance.api.Metric;
+
+/**
+ * Hill climbing of batch size of bulk upserts. Every epoch the throughput of completed rows is compared with the
+ * previous epoch, the batch size keeps moving in the same direction while throughput grows and turns back otherwise.
+ * Failed upserts (OVERLOADED after SDK retries) and latency above the limit halve the batch size.
+ * Batches are tagged with the generation of the batch size, completions of batches sent before the last change
+ * are ignored and the next epoch starts with the first completion of the current generation.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class BatchSizeController {
+    private static final Logger logger = LoggerFactory.getLogger(BatchSizeController.class);
+
+    private static final long EPOCH_MS = 1000;
+    private static final double STEP = 1.25;
+    // throughput changes less than this are treated as noise
+    private static final double TOLERANCE = 0.02;
+    private static final int TRAJECTORY_LIMIT = 256;
+
+    private final boolean adaptive;
+    private final int minSize;
+    private final int maxSize;
+    private final long maxLatencyNs;
+    private final int minCompletions;
+
+    private volatile int batchSize;
+    private volatile int generation = 0;
+    private boolean growing = true;
+    private double lastRowsPerSecond = 0;
+
+    private boolean epochStarted = false;
+    private long epochStartMs = 0;
+    private long epochRows = 0;
+    private long epochBytes = 0;
+    private long epochErrors = 0;
+    private long epochLatencyNs = 0;
+    private int epochCompletions = 0;
+
+    private int epochsCount = 0;
+    private int changesCount = 0;
+    private long staleCount = 0;
+    private int bestSize;
+    private double bestRowsPerSecond = 0;
+    private final List<Integer> trajectory = new ArrayList<>();
+
+    public BatchSizeController(boolean adaptive, int initialSize, int maxSize, long maxLatencyMs, int minCompletions) {
+        this.adaptive = adaptive;
+        this.minSize = 1;
+        this.maxSize = Math.max(initialSize, maxSize);
+        this.maxLatencyNs = maxLatencyMs * 1_000_000L;
+        this.minCompletions = Math.max(1, minCompletions);
+        this.batchSize = Math.max(minSize, initialSize);
+        this.bestSize = batchSize;
+        trajectory.add(batchSize);
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Generation is increased on every change of the batch size, it must be read before {@link #batchSize()}
+     * @return generation of the current batch size
+     */
+    public int generation() {
+        return generation;
+    }
+
+    public void onComplete(int generation, int rows, long bytes, boolean ok, long latencyNs) {
+        onComplete(generation, rows, bytes, ok, latencyNs, System.currentTimeMillis());
+    }
+
+    synchronized void onComplete(int generation, int rows, long bytes, boolean ok, long latencyNs, long now) {
+        if (!adaptive) {
+            return;
+        }
+
+        // batches sent before the last change don't describe the current batch size
+        if (generation != this.generation) {
+            staleCount += 1;
+            return;
+        }
+        // rows of the first completion were written before the epoch start, only its failure is counted
+        if (!epochStarted) {
+            epochStarted = true;
+            epochStartMs = now;
+            epochErrors += ok ? 0 : 1;
+            return;
+        }
+
+        epochCompletions += 1;
+        epochLatencyNs += latencyNs;
+        if (ok) {
+            epochRows += rows;
+            epochBytes += bytes;
+        } else {
+            epochErrors += 1;
+        }
+
+        if (now - epochStartMs < EPOCH_MS || epochCompletions < minCompletions) {
+            return;
+        }
+
+        double seconds = (now - epochStartMs) / 1000d;
+        double rowsPerSecond = epochRows / seconds;
+        long avgLatencyNs = epochLatencyNs / epochCompletions;
+        nextEpoch(rowsPerSecond, avgLatencyNs);
+
+        logger.info("epoch {}: {} rows/s, {} MB/s, avg latency {} ms, {} errors, next batch size {}",
+                epochsCount, (long) rowsPerSecond, String.format("%.2f", epochBytes / seconds / (1024 * 1024)),
+                avgLatencyNs / 1_000_000, epochErrors, batchSize);
+
+        epochStartMs = now;
+        epochRows = 0;
+        epochBytes = 0;
+        epochErrors = 0;
+        epochLatencyNs = 0;
+        epochCompletions = 0;
+    }
+
+    private void nextEpoch(double rowsPerSecond, long avgLatencyNs) {
+        epochsCount += 1;
+        if (epochErrors == 0 && rowsPerSecond > bestRowsPerSecond) {
+            bestRowsPerSecond = rowsPerSecond;
+            bestSize = batchSize;
+        }
+
+        int next;
+        if (epochErrors > 0 || avgLatencyNs > maxLatencyNs) {
+            // back off quickly when the cluster is overloaded
+            growing = false;
+            next = batchSize / 2;
+        } else {
+            if (rowsPerSecond < lastRowsPerSecond * (1 - TOLERANCE)) {
+                growing = !growing;
+            }
+            next = growing ? (int) Math.ceil(batchSize * STEP) : (int) (batchSize / STEP);
+        }
+        lastRowsPerSecond = rowsPerSecond;
+
+        next = Math.max(minSize, Math.min(maxSize, next));
+        if (next != batchSize) {
+            changesCount += 1;
+            batchSize = next;
+            generation += 1;
+            epochStarted = false;
+            if (trajectory.size() < TRAJECTORY_LIMIT) {
+                trajectory.add(next);
+            }
+        }
+    }
+
+    public synchronized List<Metric> toMetrics() {
+        if (!adaptive) {
+            return Arrays.asList(new Metric("LOAD_BATCH_SIZE", batchSize));
+        }
+
+        List<Metric> metrics = new ArrayList<>(Arrays.asList(
+                new Metric("LOAD_BATCH_SIZE", batchSize),
+                new Metric("LOAD_BATCH_SIZE_BEST", bestSize),
+                new Metric("LOAD_BATCH_BEST_ROWS_PER_SECOND", bestRowsPerSecond, Metric.Aggregation.SUM),
+                new Metric("LOAD_BATCH_EPOCHS_COUNT", epochsCount, Metric.Aggregation.SUM),
+                new Metric("LOAD_BATCH_SIZE_CHANGES_COUNT", changesCount, Metric.Aggregation.SUM),
+                new Metric("LOAD_BATCH_STALE_COUNT", staleCount, Metric.Aggregation.SUM)
+        ));
+        for (int idx = 0; idx < trajectory.size(); idx += 1) {
+            metrics.add(new Metric(String.format("LOAD_BATCH_SIZE_STEP_%03d", idx), trajectory.get(idx)));
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,71 @@
+package tech.ydb.performance.workload;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * High-water mark of inserted records. Workers reserve positions after the loaded records before the insert, the
+ * mark stops at the lowest insert in progress, so readers never choose a reserved but not yet written record.
+ * Instances of distributed run insert records with indexes of their own shard, the position k after the loaded
+ * records is the index loadedCount + k * shards + shard.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class InsertedKeys {
+    private static final long IDLE = Long.MAX_VALUE;
+
+    private final long loadedCount;
+    private final int shard;
+    private final int shards;
+    private final AtomicLong next;
+    private final AtomicLongArray inflight;
+
+    public InsertedKeys(long loadedCount, int shard, int shards, int workersCount) {
+        if (shard < 0 || shard >= shards) {
+            throw new IllegalArgumentException("Shard must be in range [0, " + shards + ")");
+        }
+        this.loadedCount = loadedCount;
+        this.shard = shard;
+        this.shards = shards;
+        this.next = new AtomicLong(loadedCount);
+        this.inflight = new AtomicLongArray(workersCount);
+        for (int idx = 0; idx < workersCount; idx += 1) {
+            inflight.set(idx, IDLE);
+        }
+    }
+
+    /**
+     * @param worker number of worker
+     * @return index of the new record, the worker must call {@link #complete(int)} after the insert
+     */
+    public long reserve(int worker) {
+        // lower bound is published first, so the concurrent count() never passes the reserved position
+        inflight.set(worker, next.get());
+        long position = next.getAndIncrement();
+        inflight.set(worker, position);
+        return index(position);
+    }
+
+    public void complete(int worker) {
+        inflight.set(worker, IDLE);
+    }
+
+    /**
+     * @param position position of record in range [0, count())
+     * @return index of the record
+     */
+    public long index(long position) {
+        return position < loadedCount ? position : loadedCount + (position - loadedCount) * shards + shard;
+    }
+
+    /**
+     * @return count of records available for reading by this instance
+     */
+    public long count() {
+        long count = next.get();
+        for (int idx = 0; idx < inflight.length(); idx += 1) {
+            count = Math.min(count, inflight.get(idx));
+        }
+        return count;
+    }
+}
@@ -0,0 +1,10 @@
+package tech.ydb.performance.workload;
+
+/**
+ * Chooses indexes of records to read. Choosers aren't thread safe, every worker uses its own instance.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public interface KeyChooser {
+    long next();
+}
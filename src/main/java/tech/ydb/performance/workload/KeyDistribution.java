@@ -0,0 +1,173 @@
+package tech.ydb.performance.workload;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.LongStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.performance.AppConfig;
+import tech.ydb.performance.api.Metric;
+
+/**
+ * Distribution of read keys shared by all workers of workload, it creates allocation-free choosers for every worker.
+ * Record uuids are hashes of payloads, so hot indexes are spread over all partitions of the table.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class KeyDistribution {
+    private static final Logger logger = LoggerFactory.getLogger(KeyDistribution.class);
+
+    private final AppConfig.Distribution type;
+    private final long count;
+    private final int workersCount;
+    private final double hotspotFraction;
+    private final double hotspotOps;
+    private final Zipfian zipfian;
+    private final LongSupplier latest;
+    private final LongUnaryOperator latestIndex;
+
+    public KeyDistribution(AppConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * @param config application config
+     * @param inserted high-water mark of inserted records for the latest distribution, null if the workload
+     * doesn't insert records
+     */
+    public KeyDistribution(AppConfig config, InsertedKeys inserted) {
+        this.type = config.keyDistribution();
+        this.count = config.recordCount();
+        this.workersCount = Math.max(1, config.threadsCount());
+        this.hotspotFraction = config.hotspotFraction();
+        this.hotspotOps = config.hotspotOps();
+
+        if (hotspotFraction <= 0 || hotspotFraction > 1 || hotspotOps < 0 || hotspotOps > 1) {
+            throw new IllegalArgumentException("Hotspot fractions must be in range (0, 1]");
+        }
+
+        boolean needZipfian = type == AppConfig.Distribution.ZIPFIAN || type == AppConfig.Distribution.LATEST;
+        this.zipfian = needZipfian ? new Zipfian(count, config.zipfianTheta()) : null;
+        this.latest = inserted != null ? inserted::count : () -> count;
+        this.latestIndex = inserted != null ? inserted::index : LongUnaryOperator.identity();
+    }
+
+    /**
+     * @param worker number of worker, it defines start position of sequential chooser
+     * @return new chooser for the worker
+     */
+    public KeyChooser newChooser(int worker) {
+        return newChooser(worker, workersCount);
+    }
+
+    /**
+     * @param worker number of worker, it defines start position of sequential chooser
+     * @param choosersCount count of choosers created by the workload, if it differs from count of threads
+     * @return new chooser for the worker
+     */
+    public KeyChooser newChooser(int worker, int choosersCount) {
+        switch (type) {
+            case ZIPFIAN:
+                return zipfian::next;
+            case LATEST:
+                return () -> latestIndex.applyAsLong(latest.getAsLong() - 1 - zipfian.next());
+            case HOTSPOT:
+                return new Hotspot(count, hotspotFraction, hotspotOps);
+            case SEQUENTIAL:
+                return new Sequential(count, count * (worker % choosersCount) / choosersCount);
+            case UNIFORM:
+            default:
+                return () -> ThreadLocalRandom.current().nextLong(count);
+        }
+    }
+
+    public List<Metric> toMetrics() {
+        return Collections.singletonList(new Metric("KEY_DISTRIBUTION_" + type.name(), 1, Metric.Aggregation.SAME));
+    }
+
+    /**
+     * Zipfian generator by Gray et al. "Quickly Generating Billion-Record Synthetic Databases"
+     */
+    private static class Zipfian {
+        private final long count;
+        private final double zetan;
+        private final double alpha;
+        private final double eta;
+        private final double halfPowTheta;
+
+        Zipfian(long count, double theta) {
+            if (theta <= 0 || theta >= 1) {
+                throw new IllegalArgumentException("Zipfian theta must be in range (0, 1), got " + theta);
+            }
+
+            long started = System.currentTimeMillis();
+            this.count = count;
+            this.zetan = zeta(count, theta);
+            this.alpha = 1.0d / (1.0d - theta);
+            this.eta = (1 - Math.pow(2.0d / count, 1 - theta)) / (1 - zeta(2, theta) / zetan);
+            this.halfPowTheta = 1 + Math.pow(0.5, theta);
+            logger.info("zipfian constants for {} keys are computed in {} ms", count,
+                    System.currentTimeMillis() - started);
+        }
+
+        private static double zeta(long count, double theta) {
+            return LongStream.rangeClosed(1, count).parallel().mapToDouble(i -> 1.0d / Math.pow(i, theta)).sum();
+        }
+
+        // the same constants are shared by all choosers, the random is thread local
+        long next() {
+            double u = ThreadLocalRandom.current().nextDouble();
+            double uz = u * zetan;
+            if (uz < 1.0d) {
+                return 0;
+            }
+            if (uz < halfPowTheta) {
+                return Math.min(1, count - 1);
+            }
+            return Math.min(count - 1, (long) (count * Math.pow(eta * u - eta + 1, alpha)));
+        }
+    }
+
+    private static class Hotspot implements KeyChooser {
+        private final long hotCount;
+        private final long coldCount;
+        private final double hotOps;
+
+        Hotspot(long count, double fraction, double ops) {
+            this.hotCount = Math.max(1, (long) (count * fraction));
+            this.coldCount = count - hotCount;
+            this.hotOps = ops;
+        }
+
+        @Override
+        public long next() {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            if (coldCount == 0 || rnd.nextDouble() < hotOps) {
+                return rnd.nextLong(hotCount);
+            }
+            return hotCount + rnd.nextLong(coldCount);
+        }
+    }
+
+    private static class Sequential implements KeyChooser {
+        private final long count;
+        private long position;
+
+        Sequential(long count, long start) {
+            this.count = count;
+            this.position = start;
+        }
+
+        @Override
+        public long next() {
+            long next = position;
+            position = position + 1 < count ? position + 1 : 0;
+            return next;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package tech.ydb.performance.workload;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.performance.AppConfig;
+import tech.ydb.performance.api.AppRecord;
+
+/**
+ * Memory mapped file with uuids and payload checksums of all records, index of record is the position in the file.
+ * File is built once in parallel and reused by the next runs with the same record count and size.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class KeyIndex {
+    private static final Logger logger = LoggerFactory.getLogger(KeyIndex.class);
+
+    private static final long MAGIC = 0x5944425049445832L; // YDBPIDX2
+    private static final int HEADER_SIZE = 32;
+    private static final int ENTRY_SIZE = 24;
+    private static final int SEGMENT_BITS = 26; // 1.5 GB per mapped segment
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+    private static final int BUILD_BLOCK_SIZE = 4096;
+
+    private final long recordCount;
+    private final MappedByteBuffer[] segments;
+
+    private KeyIndex(long recordCount, MappedByteBuffer[] segments) {
+        this.recordCount = recordCount;
+        this.segments = segments;
+    }
+
+    public long recordCount() {
+        return recordCount;
+    }
+
+    public String uuid(long index) {
+        MappedByteBuffer segment = segments[(int)(index >>> SEGMENT_BITS)];
+        int offset = (int)((index & SEGMENT_MASK) * ENTRY_SIZE);
+        return new UUID(segment.getLong(offset), segment.getLong(offset + 8)).toString();
+    }
+
+    public long checksum(long index) {
+        MappedByteBuffer segment = segments[(int)(index >>> SEGMENT_BITS)];
+        int offset = (int)((index & SEGMENT_MASK) * ENTRY_SIZE);
+        return segment.getLong(offset + 16);
+    }
+
+    /**
+     * Opens the key index configured by --key-index, builds it if the file is absent or outdated
+     * @param config application config
+     * @return key index or null if it isn't configured
+     */
+    public static KeyIndex open(AppConfig config) {
+        if (config.keyIndexFile() == null) {
+            return null;
+        }
+
+        Path path = Paths.get(config.keyIndexFile());
+        try {
+            if (!isValid(path, config.recordCount(), config.recordSize())) {
+                build(path, config.recordCount(), config.recordSize());
+            }
+            return map(path, config.recordCount());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Can't open key index " + path, ex);
+        }
+    }
+
+    private static boolean isValid(Path path, long recordCount, int recordSize) throws IOException {
+        if (!Files.exists(path)) {
+            return false;
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            if (file.length() != HEADER_SIZE + recordCount * ENTRY_SIZE) {
+                return false;
+            }
+            return file.readLong() == MAGIC && file.readLong() == recordCount && file.readInt() == recordSize;
+        }
+    }
+
+    private static void build(Path path, long recordCount, int recordSize) throws IOException {
+        logger.info("build key index {} for {} records...", path, recordCount);
+        long started = System.currentTimeMillis();
+
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(0);
+            file.setLength(HEADER_SIZE + recordCount * ENTRY_SIZE);
+
+            MappedByteBuffer[] segments = mapSegments(file.getChannel(), FileChannel.MapMode.READ_WRITE, recordCount);
+            long blocksCount = (recordCount + BUILD_BLOCK_SIZE - 1) / BUILD_BLOCK_SIZE;
+            LongStream.range(0, blocksCount).parallel().forEach(block -> {
+                long last = Math.min(recordCount, (block + 1) * BUILD_BLOCK_SIZE);
+                byte[] payload = new byte[recordSize];
+                for (long idx = block * BUILD_BLOCK_SIZE; idx < last; idx += 1) {
+                    UUID uuid = AppRecord.createPayload(idx, payload);
+                    MappedByteBuffer segment = segments[(int)(idx >>> SEGMENT_BITS)];
+                    int offset = (int)((idx & SEGMENT_MASK) * ENTRY_SIZE);
+                    segment.putLong(offset, uuid.getMostSignificantBits());
+                    segment.putLong(offset + 8, uuid.getLeastSignificantBits());
+                    segment.putLong(offset + 16, AppRecord.checksum(payload));
+                }
+            });
+            for (MappedByteBuffer segment: segments) {
+                segment.force();
+            }
+
+            // header is written last, so the partially built file is never valid
+            file.seek(0);
+            file.writeLong(MAGIC);
+            file.writeLong(recordCount);
+            file.writeInt(recordSize);
+            file.getFD().sync();
+        }
+
+        logger.info("key index is built in {} ms", System.currentTimeMillis() - started);
+    }
+
+    private static KeyIndex map(Path path, long recordCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(path)) {
+            return new KeyIndex(recordCount, mapSegments(channel, FileChannel.MapMode.READ_ONLY, recordCount));
+        }
+    }
+
+    private static MappedByteBuffer[] mapSegments(FileChannel channel, FileChannel.MapMode mode, long recordCount)
+            throws IOException {
+        int segmentsCount = (int)((recordCount + SEGMENT_MASK) >>> SEGMENT_BITS);
+        MappedByteBuffer[] segments = new MappedByteBuffer[segmentsCount];
+        for (int idx = 0; idx < segmentsCount; idx += 1) {
+            long first = (long)idx << SEGMENT_BITS;
+            long count = Math.min(recordCount - first, 1L << SEGMENT_BITS);
+            segments[idx] = channel.map(mode, HEADER_SIZE + first * ENTRY_SIZE, count * ENTRY_SIZE);
+        }
+        return segments;
+    }
+}
@@ -1,15 +1,20 @@
 package tech.ydb.performance.workload;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,28 +24,69 @@ import tech.ydb.performance.api.AppRecord;
 import tech.ydb.performance.api.Metric;
 import tech.ydb.performance.api.Workload;
 import tech.ydb.performance.api.YdbRuntime;
-import tech.ydb.performance.metrics.NanoTimer;
+import tech.ydb.performance.metrics.AllocationCounter;
+import tech.ydb.performance.metrics.IntervalReporter;
 import tech.ydb.performance.metrics.RequestMetric;
 
 /**
+ * Every thread generates the next batch while a window of previous bulk upserts is in flight.
+ * Total size of in-flight batches of all threads is limited by --load-inflight-mb.
  *
  * @author Aleksandr Gorshenin
  */
 public class LoadWorkload implements Workload {
     private static final Logger logger = LoggerFactory.getLogger(LoadWorkload.class);
 
+    // in-flight bytes are counted in KB to fit the semaphore permits into int
+    private static final int PERMIT_SIZE = 1024;
+    // approximate size of text uuid in the row
+    private static final int UUID_SIZE = 36;
+
     private final AppConfig config;
     private final YdbRuntime ydb;
     private final RequestMetric metric = new RequestMetric();
+    private final IntervalReporter reporter;
+    private final Semaphore inflightBytes;
+    private final int inflightPermits;
+    private final BatchSizeController batchSize;
+    // coordinator gives every worker its own part of records
+    private final long firstRecord;
+    private final long lastRecord;
+
+    private final LongAdder rowsCount = new LongAdder();
+    private final LongAdder bytesCount = new LongAdder();
+    // allocations of load threads, they generate batches and convert them to SDK values
+    private final LongAdder allocatedBytes = new LongAdder();
+    private long started = System.currentTimeMillis();
+    private long finished = started + 1;
 
     public LoadWorkload(AppConfig config, YdbRuntime ydb) {
+        if (config.shard() < 0 || config.shard() >= config.shards()) {
+            throw new IllegalArgumentException("Shard must be in range [0, " + config.shards() + ")");
+        }
         this.config = config;
         this.ydb = ydb;
+        this.firstRecord = (long) config.recordCount() * config.shard() / config.shards();
+        this.lastRecord = (long) config.recordCount() * (config.shard() + 1) / config.shards();
+        this.reporter = new IntervalReporter(1000L * config.reportIntervalSeconds(), config.reportFile());
+        this.inflightPermits = Math.max(1, config.loadInflightMb()) * (1024 * 1024 / PERMIT_SIZE);
+        this.inflightBytes = new Semaphore(inflightPermits);
+        // epoch must have completions of every thread to measure throughput
+        this.batchSize = new BatchSizeController(config.batchSizeAdaptive(), config.batchSize(),
+                config.batchSizeMax(), config.batchSizeMaxLatencyMs(), config.threadsCount());
     }
 
     @Override
     public List<Metric> metrics() {
-        return metric.toMetrics("LOAD");
+        long ms = finished - started;
+        long rows = Math.max(1, rowsCount.sum());
+        return Stream.of(metric.toMetrics("LOAD"), batchSize.toMetrics(), Arrays.asList(
+                new Metric("LOAD_WINDOW", config.loadWindow(), Metric.Aggregation.SAME),
+                new Metric("LOAD_ROWS_TOTAL_COUNT", rowsCount.sum(), Metric.Aggregation.SUM),
+                new Metric("LOAD_ROWS_PER_SECOND", 1000d * rowsCount.sum() / ms, Metric.Aggregation.SUM),
+                new Metric("LOAD_MB_PER_SECOND", 1000d * bytesCount.sum() / ms / (1024 * 1024), Metric.Aggregation.SUM),
+                new Metric("LOAD_ALLOC_BYTES_PER_ROW", (double) allocatedBytes.sum() / rows)
+        )).flatMap(List::stream).collect(Collectors.toList());
     }
 
     @Override
@@ -48,18 +94,20 @@ public class LoadWorkload implements Workload {
         logger.info("create table...");
         ydb.createTable();
 
-        logger.info("run load workload with {} threads", config.threadsCount());
+        logger.info("run load workload with {} threads and window of {} bulk upserts",
+                config.threadsCount(), config.loadWindow());
         ExecutorService executor = Executors.newFixedThreadPool(config.threadsCount(), new NamedThreadFactory("load"));
         List<CompletableFuture<RequestMetric>> taskTimings = new ArrayList<>();
 
-        long first = 0;
-        int perThread = config.recordCount() / config.threadsCount();
-        long lastBulk = config.recordCount() / config.batchSize();
-        AtomicInteger bulkCounter = new AtomicInteger(0);
+        long first = firstRecord;
+        long perThread = (lastRecord - firstRecord) / config.threadsCount();
+        AtomicLong rowsCounter = new AtomicLong(0);
+        started = System.currentTimeMillis();
+        reporter.start();
         for (int idx = 1; idx <= config.threadsCount(); idx += 1) {
-            long last = config.recordCount() - perThread * (config.threadsCount() - idx);
+            long last = lastRecord - perThread * (config.threadsCount() - idx);
 
-            LoadTask task = new LoadTask(first, last, bulkCounter, lastBulk);
+            LoadTask task = new LoadTask(first, last, rowsCounter);
             taskTimings.add(CompletableFuture.supplyAsync(task::call, executor));
             first = last;
         }
@@ -68,6 +116,8 @@ public class LoadWorkload implements Workload {
 
         // collect all timings
         taskTimings.forEach(future -> metric.merge(future.join()));
+        finished = Math.max(started + 1, System.currentTimeMillis());
+        reporter.close();
 
         try {
             logger.info("shutdown workload");
@@ -79,41 +129,101 @@ public class LoadWorkload implements Workload {
         }
     }
 
+    private class InflightBulk {
+        private final CompletableFuture<Boolean> future;
+        private final int generation;
+        private final int rows;
+        private final long bytes;
+        private final long startNs;
+        private volatile long finishNs = 0;
+
+        InflightBulk(int generation, List<AppRecord> batch, long bytes, int permits) {
+            this.generation = generation;
+            this.rows = batch.size();
+            this.bytes = bytes;
+            this.startNs = System.nanoTime();
+            CompletableFuture<Boolean> upsert;
+            try {
+                upsert = ydb.bulkUpsert(batch);
+            } catch (RuntimeException ex) {
+                // synchronous failure is the failed batch too, its permits must be released
+                upsert = CompletableFuture.failedFuture(ex);
+            }
+            this.future = upsert.whenComplete((ok, th) -> {
+                finishNs = System.nanoTime();
+                inflightBytes.release(permits);
+            });
+        }
+
+        // latency is measured to the completion of upsert, not to this call
+        void await(RequestMetric metric) {
+            boolean ok;
+            try {
+                ok = Boolean.TRUE.equals(future.join());
+            } catch (RuntimeException ex) {
+                logger.warn("bulk upsert failed {}", ex.getMessage());
+                ok = false;
+            }
+            metric.record(ok, finishNs - startNs);
+            batchSize.onComplete(generation, rows, bytes, ok, finishNs - startNs);
+            // throughput counts only written rows
+            if (ok) {
+                rowsCount.add(rows);
+                bytesCount.add(bytes);
+            }
+        }
+    }
+
     private class LoadTask implements Callable<RequestMetric> {
         private final long startID;
         private final long lastID;
-        private final AtomicInteger bulkCounter;
-        private final long lastBulk;
+        private final AtomicLong rowsCounter;
+        private final ArrayDeque<InflightBulk> window = new ArrayDeque<>();
 
-        public LoadTask(long startID, long lastID, AtomicInteger bulkCounter, long lastBulk) {
+        public LoadTask(long startID, long lastID, AtomicLong rowsCounter) {
             this.startID = startID;
             this.lastID = lastID;
-            this.bulkCounter = bulkCounter;
-            this.lastBulk = lastBulk;
+            this.rowsCounter = rowsCounter;
         }
 
         @Override
         public RequestMetric call() {
-            RequestMetric metric = new RequestMetric();
-            NanoTimer timer = new NanoTimer();
+            RequestMetric metric = new RequestMetric(reporter.recorder("LOAD"));
+            long allocatedAtStart = AllocationCounter.currentThreadAllocatedBytes();
+            int windowSize = Math.max(1, config.loadWindow());
 
             long idx = startID;
             while (idx < lastID) {
-                long size = Math.min(lastID - idx, config.batchSize());
+                int generation = batchSize.generation();
+                long size = Math.min(lastID - idx, batchSize.batchSize());
                 List<AppRecord> batch = LongStream.range(idx, idx + size)
                         .mapToObj(i -> AppRecord.createByIndex(i, config.recordSize()))
                         .collect(Collectors.toList());
 
-                timer.next();
-                Boolean ok = ydb.bulkUpsert(batch).join();
-                metric.record(ok, timer.next());
+                while (window.size() >= windowSize) {
+                    complete(window.poll(), metric);
+                }
 
-                logger.info("writed {}/{} bulks", bulkCounter.incrementAndGet(), lastBulk);
+                long bytes = size * (config.recordSize() + UUID_SIZE);
+                int permits = (int) Math.min(inflightPermits, (bytes + PERMIT_SIZE - 1) / PERMIT_SIZE);
+                inflightBytes.acquireUninterruptibly(permits);
+
+                window.add(new InflightBulk(generation, batch, bytes, permits));
                 idx += size;
             }
 
+            while (!window.isEmpty()) {
+                complete(window.poll(), metric);
+            }
+
+            allocatedBytes.add(AllocationCounter.currentThreadAllocatedBytes() - allocatedAtStart);
+
             return metric;
         }
 
+        private void complete(InflightBulk bulk, RequestMetric metric) {
+            bulk.await(metric);
+            logger.info("writed {}/{} rows", rowsCounter.addAndGet(bulk.rows), lastRecord - firstRecord);
+        }
     }
 }
@@ -0,0 +1,293 @@
+package tech.ydb.performance.workload;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.performance.AppConfig;
+import tech.ydb.performance.api.AppRecord;
+import tech.ydb.performance.api.Metric;
+import tech.ydb.performance.api.Workload;
+import tech.ydb.performance.api.YdbRuntime;
+import tech.ydb.performance.metrics.IntervalReporter;
+import tech.ydb.performance.metrics.NanoTimer;
+import tech.ydb.performance.metrics.ReadMetric;
+import tech.ydb.performance.metrics.RequestPhases;
+import tech.ydb.performance.metrics.RequestMetric;
+
+/**
+ * YCSB like workload with reads, updates, inserts and read-updates of single records.
+ * Updates write the generated payload of the record, so read records are still verifiable. Read-update is
+ * not a read-modify-write transaction, it reads the record and writes it back unchanged by two requests.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class MixedWorkload implements Workload {
+    private static final Logger logger = LoggerFactory.getLogger(MixedWorkload.class);
+
+    private enum Operation {
+        READ,
+        UPDATE,
+        INSERT,
+        READ_UPDATE,
+    }
+
+    private final AppConfig config;
+    private final YdbRuntime ydb;
+    // reads are reported as READ_DATA, so results are comparable with read workloads
+    private final ReadMetric metric;
+    private final RequestMetric updateMetric = new RequestMetric();
+    private final RequestMetric insertMetric = new RequestMetric();
+    private final RequestMetric readUpdateMetric = new RequestMetric();
+    private final IntervalReporter reporter;
+    private final KeyIndex keyIndex;
+    private final RecordVerifier verifier;
+    private final KeyDistribution keyDistribution;
+    private final double[] weights;
+    // inserted records get indexes after the loaded ones
+    private final InsertedKeys insertedKeys;
+
+    public MixedWorkload(AppConfig config, YdbRuntime ydb) {
+        this.config = config;
+        this.metric = new ReadMetric(config.requestPhases());
+        this.ydb = ydb;
+        this.reporter = new IntervalReporter(1000L * config.reportIntervalSeconds(), config.reportFile());
+        this.keyIndex = KeyIndex.open(config);
+        this.verifier = new RecordVerifier(config);
+        this.insertedKeys = new InsertedKeys(config.recordCount(), config.shard(), config.shards(),
+                config.threadsCount());
+        this.keyDistribution = new KeyDistribution(config, insertedKeys);
+
+        this.weights = new double[] {
+            config.mixedRead(), config.mixedUpdate(), config.mixedInsert(), config.mixedReadUpdate()
+        };
+        if (Arrays.stream(weights).anyMatch(w -> w < 0) || Arrays.stream(weights).sum() <= 0) {
+            throw new IllegalArgumentException("Weights of mixed operations must be non negative with positive sum");
+        }
+    }
+
+    @Override
+    public List<Metric> metrics() {
+        double total = Arrays.stream(weights).sum();
+        List<Metric> ratios = new ArrayList<>();
+        for (Operation op: Operation.values()) {
+            ratios.add(new Metric("MIXED_" + op.name() + "_RATIO", weights[op.ordinal()] / total,
+                    Metric.Aggregation.SAME));
+        }
+
+        return Stream.of(
+                ratios,
+                metric.toMetrics(),
+                updateMetric.toMetrics("UPDATE"),
+                insertMetric.toMetrics("INSERT"),
+                readUpdateMetric.toMetrics("READ_UPDATE"),
+                verifier.toMetrics(),
+                keyDistribution.toMetrics()
+        ).flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    @Override
+    public void run() {
+        if (!config.warmupIsDisabled()) {
+            logger.info("warnup {} sessions", config.threadsCount());
+            List<CompletableFuture<YdbRuntime.YdbSession>> sessions = new ArrayList<>();
+            for (int idx = 0; idx < config.threadsCount(); idx += 1) {
+                sessions.add(ydb.createSession());
+            }
+            sessions.forEach(future -> future.join().close());
+        }
+
+        logger.info("run mixed workload with {} threads", config.threadsCount());
+        ExecutorService executor = Executors.newFixedThreadPool(config.threadsCount(), new NamedThreadFactory("mixed"));
+        List<CompletableFuture<MixedTask>> tasks = new ArrayList<>();
+
+        long finishTime = System.currentTimeMillis() + 1000 * config.testDurationSeconds();
+        double threadRate = (double)config.rate() / config.threadsCount();
+        long startNs = System.nanoTime();
+        metric.start();
+        reporter.start();
+        verifier.start();
+        metric.setTargetRate(config.rate());
+        metric.setStickySessions(config.stickySessions());
+        for (int idx = 0; idx < config.threadsCount(); idx += 1) {
+            // shift start times of threads to spread requests uniformly
+            long threadStartNs = threadRate > 0 ? startNs + (long)(1e9d * idx / config.rate()) : startNs;
+            MixedTask task = new MixedTask(idx, finishTime, new Pacer(threadRate, threadStartNs),
+                    keyDistribution.newChooser(idx));
+            tasks.add(CompletableFuture.supplyAsync(task::call, executor));
+        }
+
+        logger.info("wait {}s to finish all threads...", config.testDurationSeconds());
+
+        // collect all timings
+        tasks.forEach(future -> {
+            MixedTask task = future.join();
+            metric.merge(task.timing);
+            updateMetric.merge(task.update);
+            insertMetric.merge(task.insert);
+            readUpdateMetric.merge(task.readUpdate);
+        });
+
+        metric.finish();
+        reporter.close();
+        verifier.close();
+
+        try {
+            logger.info("shutdown workload");
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            logger.error("interrupted", ex);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class MixedTask {
+        private final ReadKey key = new ReadKey(keyIndex, config.recordSize());
+        private final int worker;
+        private final long finishTimestamp;
+        private final Pacer pacer;
+        private final KeyChooser chooser;
+        private final RequestPhases phases = new RequestPhases(config.requestPhases());
+
+        private final ReadMetric timing = new ReadMetric(reporter, config.requestPhases());
+        private final RequestMetric update = new RequestMetric(reporter.recorder("UPDATE"));
+        private final RequestMetric insert = new RequestMetric(reporter.recorder("INSERT"));
+        private final RequestMetric readUpdate = new RequestMetric(reporter.recorder("READ_UPDATE"));
+
+        MixedTask(int worker, long finishTimestamp, Pacer pacer, KeyChooser chooser) {
+            this.worker = worker;
+            this.finishTimestamp = finishTimestamp;
+            this.pacer = pacer;
+            this.chooser = chooser;
+        }
+
+        private Operation nextOperation() {
+            double total = weights[0] + weights[1] + weights[2] + weights[3];
+            double value = ThreadLocalRandom.current().nextDouble(total);
+            for (Operation op: Operation.values()) {
+                value -= weights[op.ordinal()];
+                if (value < 0) {
+                    return op;
+                }
+            }
+            return Operation.READ;
+        }
+
+        public MixedTask call() {
+            NanoTimer timer = new NanoTimer();
+
+            try (SessionHolder sessions = new SessionHolder(ydb, config.stickySessions())) {
+                while (System.currentTimeMillis() < finishTimestamp) {
+                    long intended = pacer.awaitNext();
+                    timer.next();
+                    long started = timer.last();
+                    phases.start(pacer.isOpenLoop() ? intended : 0);
+                    boolean ok = false;
+                    try {
+                        YdbRuntime.YdbSession session = sessions.acquire();
+                        timing.recordGetSession(true, timer.next());
+                        phases.mark(RequestPhases.Phase.SESSION);
+
+                        Operation op = nextOperation();
+                        if ((op == Operation.READ || op == Operation.READ_UPDATE) && !session.isReadPrepared()) {
+                            timing.recordPrepareQuery(session.prepareRead().join(), timer.next());
+                        }
+
+                        ok = execute(session, op, timer);
+                        if (ok) {
+                            timing.requestInc();
+                        }
+                    } catch (RuntimeException ex) {
+                        timing.recordGetSession(false, timer.next());
+                        logger.warn("can't execute operation {}", ex.getMessage());
+                    }
+
+                    if (sessions.release()) {
+                        timing.sessionRecreateInc();
+                    }
+
+                    if (pacer.isOpenLoop()) {
+                        timing.recordRequest(ok, intended, started, timer.last());
+                    }
+                    timing.recordPhases(phases, ok);
+                }
+            }
+
+            return this;
+        }
+
+        private boolean execute(YdbRuntime.YdbSession session, Operation op, NanoTimer timer) {
+            boolean ok;
+            timer.next();
+            try {
+                switch (op) {
+                    case UPDATE:
+                        key.select(chooser.next());
+                        ok = phases.sent(session.update(key.expectedRecord())).join();
+                        phases.mark(RequestPhases.Phase.CALLBACK);
+                        update.record(ok, timer.next());
+                        return ok;
+                    case INSERT:
+                        AppRecord inserted = AppRecord.createByIndex(insertedKeys.reserve(worker),
+                                config.recordSize());
+                        try {
+                            ok = phases.sent(session.upsert(inserted)).join();
+                            phases.mark(RequestPhases.Phase.CALLBACK);
+                        } finally {
+                            insertedKeys.complete(worker);
+                        }
+                        insert.record(ok, timer.next());
+                        return ok;
+                    case READ_UPDATE:
+                        key.select(chooser.next());
+                        // phases of read-update cover its read
+                        AppRecord current = phases.sent(session.read(key.uuid())).join();
+                        phases.mark(RequestPhases.Phase.CALLBACK);
+                        verifier.verify(key, current);
+                        phases.mark(RequestPhases.Phase.VERIFY);
+                        ok = current != null && session.update(current).join();
+                        readUpdate.record(ok, timer.next());
+                        return ok;
+                    case READ:
+                    default:
+                        key.select(chooser.next());
+                        AppRecord readed = phases.sent(session.read(key.uuid())).join();
+                        phases.mark(RequestPhases.Phase.CALLBACK);
+                        timing.recordReadData(true, timer.next());
+                        verifier.verify(key, readed);
+                        phases.mark(RequestPhases.Phase.VERIFY);
+                        return true;
+                }
+            } catch (RuntimeException ex) {
+                long ns = timer.next();
+                switch (op) {
+                    case UPDATE:
+                        update.record(false, ns);
+                        break;
+                    case INSERT:
+                        insert.record(false, ns);
+                        break;
+                    case READ_UPDATE:
+                        readUpdate.record(false, ns);
+                        break;
+                    case READ:
+                    default:
+                        timing.recordReadData(false, ns);
+                        break;
+                }
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package tech.ydb.performance.workload;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.performance.AppConfig;
+import tech.ydb.performance.api.AppRecord;
+import tech.ydb.performance.api.Metric;
+import tech.ydb.performance.api.Workload;
+import tech.ydb.performance.api.YdbRuntime;
+import tech.ydb.performance.metrics.IntervalReporter;
+import tech.ydb.performance.metrics.NanoTimer;
+import tech.ydb.performance.metrics.ReadMetric;
+import tech.ydb.performance.metrics.RequestPhases;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class MultiGetWorkload implements Workload {
+    private static final Logger logger = LoggerFactory.getLogger(MultiGetWorkload.class);
+
+    private final AppConfig config;
+    private final YdbRuntime ydb;
+    private final ReadMetric metric;
+    private final IntervalReporter reporter;
+    private final KeyIndex keyIndex;
+    private final RecordVerifier verifier;
+    private final KeyDistribution keyDistribution;
+
+    public MultiGetWorkload(AppConfig config, YdbRuntime ydb) {
+        this.config = config;
+        this.metric = new ReadMetric(config.requestPhases());
+        this.ydb = ydb;
+        this.reporter = new IntervalReporter(1000L * config.reportIntervalSeconds(), config.reportFile());
+        this.keyIndex = KeyIndex.open(config);
+        this.verifier = new RecordVerifier(config);
+        this.keyDistribution = new KeyDistribution(config);
+    }
+
+    @Override
+    public List<Metric> metrics() {
+        return Stream.of(metric.toMetrics(), verifier.toMetrics(), keyDistribution.toMetrics())
+                .flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    @Override
+    public void run() {
+        if (!config.warmupIsDisabled()) {
+            logger.info("warnup {} sessions", config.threadsCount());
+            List<CompletableFuture<YdbRuntime.YdbSession>> sessions = new ArrayList<>();
+            for (int idx = 0; idx < config.threadsCount(); idx += 1) {
+                sessions.add(ydb.createSession());
+            }
+            sessions.forEach(future -> future.join().close());
+        }
+
+        logger.info("run multiget workload with {} threads and {} keys per request",
+                config.threadsCount(), config.keysPerRequest());
+        ExecutorService executor = Executors.newFixedThreadPool(config.threadsCount(), new NamedThreadFactory("mget"));
+        List<CompletableFuture<ReadMetric>> taskTimings = new ArrayList<>();
+
+        long finishTime = System.currentTimeMillis() + 1000 * config.testDurationSeconds();
+        double threadRate = (double)config.rate() / config.threadsCount();
+        long startNs = System.nanoTime();
+        metric.start();
+        reporter.start();
+        verifier.start();
+        metric.setTargetRate(config.rate());
+        metric.setStickySessions(config.stickySessions());
+        for (int idx = 0; idx < config.threadsCount(); idx += 1) {
+            // shift start times of threads to spread requests uniformly
+            long threadStartNs = threadRate > 0 ? startNs + (long)(1e9d * idx / config.rate()) : startNs;
+            MultiGetTask task = new MultiGetTask(finishTime, new Pacer(threadRate, threadStartNs),
+                    keyDistribution.newChooser(idx));
+            taskTimings.add(CompletableFuture.supplyAsync(task::call, executor));
+        }
+
+        logger.info("wait {}s to finish all threads...", config.testDurationSeconds());
+
+        // collect all timings
+        taskTimings.forEach(future -> metric.merge(future.join()));
+
+        metric.finish();
+        reporter.close();
+        verifier.close();
+
+        try {
+            logger.info("shutdown workload");
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            logger.error("interrupted", ex);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class MultiGetTask implements Callable<ReadMetric> {
+        private final ReadKey[] keys = new ReadKey[config.keysPerRequest()];
+        private final List<String> uuids = new ArrayList<>(config.keysPerRequest());
+        private final Map<String, AppRecord> readedByUuid = new HashMap<>();
+        private final long finishTimestamp;
+        private final Pacer pacer;
+        private final KeyChooser chooser;
+
+        public MultiGetTask(long finishTimestamp, Pacer pacer, KeyChooser chooser) {
+            this.finishTimestamp = finishTimestamp;
+            this.pacer = pacer;
+            this.chooser = chooser;
+            for (int idx = 0; idx < keys.length; idx += 1) {
+                keys[idx] = new ReadKey(keyIndex, config.recordSize());
+            }
+        }
+
+        private void selectKeys() {
+            uuids.clear();
+            for (ReadKey key: keys) {
+                key.select(chooser.next());
+                uuids.add(key.uuid());
+            }
+        }
+
+        private void verify(List<AppRecord> readed) {
+            readedByUuid.clear();
+            for (AppRecord record: readed) {
+                readedByUuid.put(record.uuid(), record);
+            }
+            for (ReadKey key: keys) {
+                verifier.verify(key, readedByUuid.get(key.uuid()));
+            }
+        }
+
+        @Override
+        public ReadMetric call() {
+            ReadMetric timing = new ReadMetric(reporter, config.requestPhases());
+            NanoTimer timer = new NanoTimer();
+            RequestPhases phases = new RequestPhases(config.requestPhases());
+
+            try (SessionHolder sessions = new SessionHolder(ydb, config.stickySessions())) {
+                while (System.currentTimeMillis() < finishTimestamp) {
+                    long intended = pacer.awaitNext();
+                    timer.next();
+                    long started = timer.last();
+                    phases.start(pacer.isOpenLoop() ? intended : 0);
+                    boolean ok = false;
+                    try {
+                        YdbRuntime.YdbSession session = sessions.acquire();
+                        timing.recordGetSession(true, timer.next());
+                        phases.mark(RequestPhases.Phase.SESSION);
+
+                        selectKeys();
+                        timer.next();
+                        try {
+                            List<AppRecord> readed = phases.sent(session.readBatch(uuids)).join();
+                            phases.mark(RequestPhases.Phase.CALLBACK);
+                            long batchNs = timer.next();
+                            ok = readed != null;
+                            timing.recordReadData(ok, batchNs);
+                            timing.recordReadKeys(ok, batchNs, keys.length);
+
+                            if (readed != null) {
+                                verify(readed);
+                                phases.mark(RequestPhases.Phase.VERIFY);
+                                timing.requestInc();
+                            }
+                        } catch (RuntimeException ex) {
+                            long batchNs = timer.next();
+                            timing.recordReadData(false, batchNs);
+                            timing.recordReadKeys(false, batchNs, keys.length);
+                        }
+                    } catch (RuntimeException ex) {
+                        timing.recordGetSession(false, timer.next());
+                        logger.warn("can't read records {}", ex.getMessage());
+                    }
+
+                    if (sessions.release()) {
+                        timing.sessionRecreateInc();
+                    }
+
+                    if (pacer.isOpenLoop()) {
+                        timing.recordRequest(ok, intended, started, timer.last());
+                    }
+                    timing.recordPhases(phases, ok);
+                }
+            }
+
+            return timing;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package tech.ydb.performance.workload;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import tech.ydb.performance.metrics.ResourceMeter;
+
 /**
  *
  * @author Aleksandr Gorshenin
@@ -19,7 +21,13 @@ public class NamedThreadFactory implements ThreadFactory {
 
     @Override
     public Thread newThread(Runnable r) {
-        Thread t = new Thread(r, namePrefix + threadNumber.getAndIncrement());
+        Thread t = new Thread(() -> {
+            try {
+                r.run();
+            } finally {
+                ResourceMeter.threadFinished();
+            }
+        }, namePrefix + threadNumber.getAndIncrement());
         t.setDaemon(true);
         return t;
     }
@@ -0,0 +1,41 @@
+package tech.ydb.performance.workload;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Schedules requests on a fixed timeline which doesn't depend on completions of the previous requests.
+ * Pacer with zero rate works in closed loop mode and never waits.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class Pacer {
+    private final double intervalNs;
+    private final long startNs;
+    private long requestNumber = 0;
+
+    public Pacer(double ratePerSecond, long startNs) {
+        this.intervalNs = ratePerSecond > 0 ? 1e9d / ratePerSecond : 0;
+        this.startNs = startNs;
+    }
+
+    public boolean isOpenLoop() {
+        return intervalNs > 0;
+    }
+
+    // returns intended start time of the next request, doesn't wait if the pacer is behind the schedule
+    public long awaitNext() {
+        if (!isOpenLoop()) {
+            return System.nanoTime();
+        }
+
+        long intended = startNs + (long)(intervalNs * requestNumber);
+        requestNumber += 1;
+
+        long delay = intended - System.nanoTime();
+        while (delay > 0) {
+            LockSupport.parkNanos(delay);
+            delay = intended - System.nanoTime();
+        }
+        return intended;
+    }
+}
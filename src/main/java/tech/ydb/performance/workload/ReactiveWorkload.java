@@ -1,13 +1,19 @@
 package tech.ydb.performance.workload;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,28 +23,78 @@ import tech.ydb.performance.api.AppRecord;
 import tech.ydb.performance.api.Metric;
 import tech.ydb.performance.api.Workload;
 import tech.ydb.performance.api.YdbRuntime;
-import tech.ydb.performance.metrics.NanoTimer;
+import tech.ydb.performance.metrics.IntervalReporter;
 import tech.ydb.performance.metrics.ReadMetric;
+import tech.ydb.performance.metrics.RequestPhases;
 
 /**
+ * Asynchronous read workload. Count of in-flight requests is limited by the count of request slots,
+ * every slot keeps the state of one request and is reused by the next requests. Closed loop mode runs
+ * every slot in the loop, open loop mode takes a free slot for every dispatched request and waits if
+ * there are no free slots.
  *
  * @author Aleksandr Gorshenin
  */
 public class ReactiveWorkload implements Workload {
     private static final Logger logger = LoggerFactory.getLogger(ReactiveWorkload.class);
+    // default limit of in-flight requests of open loop mode, every slot keeps its own state
+    private static final int DEFAULT_INFLIGHT_PER_THREAD = 64;
 
     private final AppConfig config;
     private final YdbRuntime ydb;
-    private final ReadMetric metric = new ReadMetric();
+    private final ReadMetric metric;
+    private final IntervalReporter reporter;
+    private final KeyIndex keyIndex;
+    private final RecordVerifier verifier;
+    private final KeyDistribution keyDistribution;
+    private final int maxInflight;
+    private final boolean direct;
+    private long permitWaits = 0;
+
+    // metrics are thread local, callbacks are executed by threads of executor or SDK
+    private final ConcurrentLinkedQueue<ReadMetric> metrics = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ReadMetric> localMetric;
+    // depth of start() calls of the current thread, completions inside of them are synchronous
+    private final ThreadLocal<int[]> startDepth = ThreadLocal.withInitial(() -> new int[1]);
+    private ExecutorService executor;
 
     public ReactiveWorkload(AppConfig config, YdbRuntime ydb) {
         this.config = config;
+        this.metric = new ReadMetric(config.requestPhases());
         this.ydb = ydb;
+        this.reporter = new IntervalReporter(1000L * config.reportIntervalSeconds(), config.reportFile());
+        this.keyIndex = KeyIndex.open(config);
+        this.verifier = new RecordVerifier(config);
+        this.keyDistribution = new KeyDistribution(config);
+        this.direct = config.reactiveDirect();
+        // open loop allows one second of latency at the target rate by default, but not too many slots
+        if (config.maxInflight() > 0) {
+            this.maxInflight = config.maxInflight();
+        } else if (config.rate() > 0) {
+            int limit = config.threadsCount() * DEFAULT_INFLIGHT_PER_THREAD;
+            this.maxInflight = Math.max(config.threadsCount(), Math.min(config.rate(), limit));
+            if (config.rate() > limit) {
+                logger.warn("in-flight requests are limited by {}, use --max-inflight to allow more", limit);
+            }
+        } else {
+            this.maxInflight = config.threadsCount();
+        }
+        this.localMetric = ThreadLocal.withInitial(() -> {
+            ReadMetric rm = new ReadMetric(reporter, config.requestPhases());
+            metrics.add(rm);
+            return rm;
+        });
     }
 
     @Override
     public List<Metric> metrics() {
-        return metric.toMetrics();
+        List<Metric> engine = Arrays.asList(
+                new Metric("REACTIVE_MAX_INFLIGHT", maxInflight, Metric.Aggregation.SUM),
+                new Metric("REACTIVE_DIRECT_CALLBACKS", direct ? 1 : 0, Metric.Aggregation.SAME),
+                new Metric("REACTIVE_PERMIT_WAIT_COUNT", permitWaits, Metric.Aggregation.SUM)
+        );
+        return Stream.of(metric.toMetrics(), engine, verifier.toMetrics(), keyDistribution.toMetrics())
+                .flatMap(List::stream).collect(Collectors.toList());
     }
 
     @Override
@@ -54,32 +110,64 @@ public class ReactiveWorkload implements Workload {
 
         int threadCounts = Runtime.getRuntime().availableProcessors();
 
-        logger.info("run reactive read workload with {} threads", threadCounts);
-        ExecutorService executor = Executors.newFixedThreadPool(threadCounts, new NamedThreadFactory("reactive"));
-        final ConcurrentLinkedQueue<ReadMetric> metrics = new ConcurrentLinkedQueue<>();
-        final ThreadLocal<ReadMetric> localMetric = ThreadLocal.withInitial(() -> {
-            ReadMetric rm = new ReadMetric();
-            metrics.add(rm);
-            return rm;
-        });
+        logger.info("run reactive read workload with {} threads, {} in-flight requests and {} callbacks",
+                threadCounts, maxInflight, direct ? "direct" : "executor");
+        executor = Executors.newFixedThreadPool(threadCounts, new NamedThreadFactory("reactive"));
 
         long finishTime = System.currentTimeMillis() + 1000 * config.testDurationSeconds();
+        InflightCounter counter = new InflightCounter();
         metric.start();
+        reporter.start();
+        verifier.start();
+        metric.setTargetRate(config.rate());
+        metric.setStickySessions(config.stickySessions() && config.rate() <= 0);
+
+        if (config.rate() > 0) {
+            if (config.stickySessions()) {
+                logger.warn("sticky sessions are supported only by closed loop mode");
+            }
+            BlockingQueue<RequestSlot> freeSlots = new ArrayBlockingQueue<>(maxInflight);
+            for (int idx = 0; idx < maxInflight; idx += 1) {
+                freeSlots.add(new RequestSlot(idx, counter, freeSlots, 0));
+            }
 
-        List<ReactiveTask> tasks = new ArrayList<>();
-        for (int idx = 0; idx < config.threadsCount(); idx += 1) {
-            ReactiveTask task = new ReactiveTask(executor, localMetric, finishTime);
-            tasks.add(task);
-            executor.execute(task);
+            logger.info("dispatch {} requests per second during {}s...", config.rate(), config.testDurationSeconds());
+            Pacer pacer = new Pacer(config.rate(), System.nanoTime());
+            try {
+                while (System.currentTimeMillis() < finishTime) {
+                    long intended = pacer.awaitNext();
+                    RequestSlot slot = freeSlots.poll();
+                    if (slot == null) {
+                        // waiting time is counted by corrected latency of the request
+                        permitWaits += 1;
+                        slot = freeSlots.take();
+                    }
+                    counter.requestStarted();
+                    slot.intendedNs = intended;
+                    executor.execute(slot);
+                }
+            } catch (InterruptedException ex) {
+                logger.error("interrupted", ex);
+                Thread.currentThread().interrupt();
+            }
+        } else {
+            for (int idx = 0; idx < maxInflight; idx += 1) {
+                counter.requestStarted();
+                executor.execute(new RequestSlot(idx, counter, null, finishTime));
+            }
+            logger.info("wait {}s to finish all requests...", config.testDurationSeconds());
         }
 
-        logger.info("wait {}s to finish all tasks...", config.testDurationSeconds());
+        counter.dispatchFinished();
+        logger.info("wait for in-flight requests...");
+        counter.waitFinish();
 
         // collect all timings
-        tasks.forEach(ReactiveTask::waitFinish);
         metrics.forEach(m -> metric.merge(m));
 
         metric.finish();
+        reporter.close();
+        verifier.close();
 
         try {
             logger.info("shutdown workload");
@@ -91,64 +179,198 @@ public class ReactiveWorkload implements Workload {
         }
     }
 
-    private class ReactiveTask implements Runnable {
-        private final ExecutorService executor;
-        private final ThreadLocal<ReadMetric> totalMetric;
-        private final long finishTimestamp;
+    /**
+     * Tracks count of in-flight requests of open loop mode and count of running slots of closed loop mode
+     */
+    private static class InflightCounter {
+        // one extra count is hold by the dispatcher until it finishes
+        private final AtomicLong inflight = new AtomicLong(1);
         private final CompletableFuture<?> finish = new CompletableFuture<>();
 
-        public ReactiveTask(ExecutorService executor, ThreadLocal<ReadMetric> metric, long finishTimestamp) {
-            this.executor = executor;
-            this.totalMetric = metric;
-            this.finishTimestamp = finishTimestamp;
-        }
-
-        private AppRecord randomRecord() {
-            ThreadLocalRandom rnd = ThreadLocalRandom.current();
-            return AppRecord.createByIndex(rnd.nextLong(config.recordCount()), config.recordSize());
+        public void requestStarted() {
+            inflight.incrementAndGet();
         }
 
-        private void complete(ReadMetric metric) {
-            totalMetric.get().merge(metric);
-            if (System.currentTimeMillis() < finishTimestamp) {
-                executor.execute(this);
-            } else {
+        public void requestFinished() {
+            if (inflight.decrementAndGet() == 0) {
                 finish.complete(null);
             }
         }
 
+        public void dispatchFinished() {
+            requestFinished();
+        }
+
         public void waitFinish() {
             finish.join();
         }
+    }
+
+    /**
+     * State of one in-flight request. Callbacks are created once, so the next request of the slot allocates
+     * nothing but the futures of the runtime.
+     */
+    private class RequestSlot implements Runnable {
+        private final InflightCounter counter;
+        private final KeyChooser chooser;
+        private final ReadKey key = new ReadKey(keyIndex, config.recordSize());
+        private final RequestPhases phases = new RequestPhases(config.requestPhases());
+
+        private final BiConsumer<YdbRuntime.YdbSession, Throwable> onSession = this::onSession;
+        private final BiConsumer<Boolean, Throwable> onPrepared = this::onPrepared;
+        private final BiConsumer<AppRecord, Throwable> onRead = this::onRead;
+
+        // open loop slot returns to the free slots after every request
+        private final BlockingQueue<RequestSlot> freeSlots;
+        // closed loop slot keeps the session between requests in sticky mode
+        private final long finishTimestamp;
+        private final boolean sticky;
+
+        private YdbRuntime.YdbSession session = null;
+        private long intendedNs;
+        private long startedNs;
+        private long stepNs;
+
+        RequestSlot(int idx, InflightCounter counter, BlockingQueue<RequestSlot> freeSlots, long finishTimestamp) {
+            this.counter = counter;
+            this.chooser = keyDistribution.newChooser(idx, maxInflight);
+            this.freeSlots = freeSlots;
+            this.finishTimestamp = finishTimestamp;
+            this.sticky = freeSlots == null && config.stickySessions();
+        }
 
         @Override
         public void run() {
-            final NanoTimer timer = new NanoTimer();
-            final ReadMetric metric = new ReadMetric();
-            ydb.createSession().whenCompleteAsync((session, th1) -> {
-                metric.recordGetSession(th1 == null && session != null, timer.next());
-                if (session == null) {
-                    complete(metric);
-                    return;
-                }
+            start();
+        }
 
-                final AppRecord record = randomRecord();
-                timer.next();
-                session.read(record.uuid()).whenCompleteAsync((readed, th2) -> {
-                    metric.recordReadData(th2 == null && readed != null, timer.next());
-                    if (readed != null) {
-                        if (!record.equals(readed)) {
-                            logger.error("readed wrong record");
-                        }
-                        metric.requestInc();
-                    }
+        void start() {
+            int[] depth = startDepth.get();
+            depth[0] += 1;
+            try {
+                begin();
+            } finally {
+                depth[0] -= 1;
+            }
+        }
+
+        private void begin() {
+            startedNs = System.nanoTime();
+            stepNs = startedNs;
+            // scheduling of open loop request includes waiting for the free slot and the executor queue
+            phases.start(freeSlots != null ? intendedNs : 0);
+            if (session != null) {
+                localMetric.get().recordGetSession(true, lap());
+                phases.mark(RequestPhases.Phase.SESSION);
+                prepare();
+            } else {
+                then(ydb.createSession(), onSession);
+            }
+        }
+
+        private long lap() {
+            long now = System.nanoTime();
+            long elapsed = now - stepNs;
+            stepNs = now;
+            return elapsed;
+        }
+
+        // already completed futures are handled inline to avoid the extra executor hop
+        private <T> void then(CompletableFuture<T> future, BiConsumer<? super T, ? super Throwable> callback) {
+            if (direct || future.isDone()) {
+                future.whenComplete(callback);
+            } else {
+                future.whenCompleteAsync(callback, executor);
+            }
+        }
+
+        private void onSession(YdbRuntime.YdbSession created, Throwable th) {
+            localMetric.get().recordGetSession(th == null && created != null, lap());
+            if (created == null) {
+                finishRequest(localMetric.get(), false);
+                return;
+            }
+
+            session = created;
+            phases.mark(RequestPhases.Phase.SESSION);
+            prepare();
+        }
+
+        private void prepare() {
+            if (session.isReadPrepared()) {
+                sendRead();
+                return;
+            }
+            lap();
+            then(session.prepareRead(), onPrepared);
+        }
+
+        private void onPrepared(Boolean prepared, Throwable th) {
+            localMetric.get().recordPrepareQuery(th == null && prepared != null && prepared, lap());
+            sendRead();
+        }
+
+        private void sendRead() {
+            key.select(chooser.next());
+            lap();
+            then(phases.sent(session.read(key.uuid())), onRead);
+        }
 
-                    complete(metric);
+        private void onRead(AppRecord readed, Throwable th) {
+            phases.mark(RequestPhases.Phase.CALLBACK);
+            ReadMetric rm = localMetric.get();
+            boolean ok = th == null && readed != null;
+            rm.recordReadData(ok, lap());
+            if (readed != null) {
+                verifier.verify(key, readed);
+                phases.mark(RequestPhases.Phase.VERIFY);
+                rm.requestInc();
+            }
+            rm.recordPhases(phases, ok);
+
+            release(rm);
+            finishRequest(rm, ok);
+        }
+
+        private void release(ReadMetric rm) {
+            if (!sticky) {
+                session.close();
+                session = null;
+                return;
+            }
+
+            // session must be released before the next request of the slot
+            if (session.isBroken()) {
+                rm.sessionRecreateInc();
+                session.close();
+                session = null;
+            }
+        }
+
+        private void finishRequest(ReadMetric rm, boolean ok) {
+            if (freeSlots != null) {
+                rm.recordRequest(ok, intendedNs, startedNs, System.nanoTime());
+                freeSlots.add(this);
+                counter.requestFinished();
+                return;
+            }
+
+            if (System.currentTimeMillis() >= finishTimestamp) {
+                if (session != null) {
                     session.close();
-                }, executor);
-            }, executor);
+                    session = null;
+                }
+                counter.requestFinished();
+                return;
+            }
+
+            // next request of closed loop is started inline only if the previous one is completed asynchronously,
+            // synchronous completion would grow the stack, such slot is restarted by the executor
+            if (direct && startDepth.get()[0] == 0) {
+                start();
+            } else {
+                executor.execute(this);
+            }
         }
     }
-
 }
-
@@ -0,0 +1,57 @@
+package tech.ydb.performance.workload;
+
+import tech.ydb.performance.api.AppRecord;
+
+/**
+ * Key of the next read request. With the key index only uuid is loaded, the whole record is generated
+ * only if it is needed for verification.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class ReadKey {
+    private final KeyIndex keyIndex;
+    private final int recordSize;
+
+    private long index;
+    private String uuid;
+    private AppRecord record;
+
+    ReadKey(KeyIndex keyIndex, int recordSize) {
+        this.keyIndex = keyIndex;
+        this.recordSize = recordSize;
+    }
+
+    public void select(long recordIndex) {
+        this.index = recordIndex;
+        // records inserted by the workload are absent in the key index
+        if (keyIndex != null && recordIndex < keyIndex.recordCount()) {
+            this.uuid = keyIndex.uuid(recordIndex);
+            this.record = null;
+        } else {
+            this.record = AppRecord.createByIndex(recordIndex, recordSize);
+            this.uuid = record.uuid();
+        }
+    }
+
+    public long index() {
+        return index;
+    }
+
+    public String uuid() {
+        return uuid;
+    }
+
+    public long expectedChecksum() {
+        if (keyIndex != null && index < keyIndex.recordCount()) {
+            return keyIndex.checksum(index);
+        }
+        return AppRecord.checksum(expectedRecord().payload());
+    }
+
+    public AppRecord expectedRecord() {
+        if (record == null) {
+            record = AppRecord.createByIndex(index, recordSize);
+        }
+        return record;
+    }
+}
@@ -6,8 +6,9 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,8 +18,10 @@ import tech.ydb.performance.api.AppRecord;
 import tech.ydb.performance.api.Metric;
 import tech.ydb.performance.api.Workload;
 import tech.ydb.performance.api.YdbRuntime;
+import tech.ydb.performance.metrics.IntervalReporter;
 import tech.ydb.performance.metrics.NanoTimer;
 import tech.ydb.performance.metrics.ReadMetric;
+import tech.ydb.performance.metrics.RequestPhases;
 
 /**
  *
@@ -29,16 +32,26 @@ public class ReadWorkload implements Workload {
 
     private final AppConfig config;
     private final YdbRuntime ydb;
-    private final ReadMetric metric = new ReadMetric();
+    private final ReadMetric metric;
+    private final IntervalReporter reporter;
+    private final KeyIndex keyIndex;
+    private final RecordVerifier verifier;
+    private final KeyDistribution keyDistribution;
 
     public ReadWorkload(AppConfig config, YdbRuntime ydb) {
         this.config = config;
+        this.metric = new ReadMetric(config.requestPhases());
         this.ydb = ydb;
+        this.reporter = new IntervalReporter(1000L * config.reportIntervalSeconds(), config.reportFile());
+        this.keyIndex = KeyIndex.open(config);
+        this.verifier = new RecordVerifier(config);
+        this.keyDistribution = new KeyDistribution(config);
     }
 
     @Override
     public List<Metric> metrics() {
-        return metric.toMetrics();
+        return Stream.of(metric.toMetrics(), verifier.toMetrics(), keyDistribution.toMetrics())
+                .flatMap(List::stream).collect(Collectors.toList());
     }
 
     @Override
@@ -57,9 +70,18 @@ public class ReadWorkload implements Workload {
         List<CompletableFuture<ReadMetric>> taskTimings = new ArrayList<>();
 
         long finishTime = System.currentTimeMillis() + 1000 * config.testDurationSeconds();
+        double threadRate = (double)config.rate() / config.threadsCount();
+        long startNs = System.nanoTime();
         metric.start();
+        reporter.start();
+        verifier.start();
+        metric.setTargetRate(config.rate());
+        metric.setStickySessions(config.stickySessions());
         for (int idx = 0; idx < config.threadsCount(); idx += 1) {
-            ReadTask task = new ReadTask(finishTime);
+            // shift start times of threads to spread requests uniformly
+            long threadStartNs = threadRate > 0 ? startNs + (long)(1e9d * idx / config.rate()) : startNs;
+            ReadTask task = new ReadTask(finishTime, new Pacer(threadRate, threadStartNs),
+                    keyDistribution.newChooser(idx));
             taskTimings.add(CompletableFuture.supplyAsync(task::call, executor));
         }
 
@@ -69,6 +91,8 @@ public class ReadWorkload implements Workload {
         taskTimings.forEach(future -> metric.merge(future.join()));
 
         metric.finish();
+        reporter.close();
+        verifier.close();
 
         try {
             logger.info("shutdown workload");
@@ -81,44 +105,67 @@ public class ReadWorkload implements Workload {
     }
 
     private class ReadTask implements Callable<ReadMetric> {
-        private final ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        private final ReadKey key = new ReadKey(keyIndex, config.recordSize());
         private final long finishTimestamp;
+        private final Pacer pacer;
+        private final KeyChooser chooser;
 
-        public ReadTask(long finishTimestamp) {
+        public ReadTask(long finishTimestamp, Pacer pacer, KeyChooser chooser) {
             this.finishTimestamp = finishTimestamp;
-        }
-
-        private AppRecord randomRecord() {
-            return AppRecord.createByIndex(rnd.nextLong(config.recordCount()), config.recordSize());
+            this.pacer = pacer;
+            this.chooser = chooser;
         }
 
         @Override
         public ReadMetric call() {
-            ReadMetric timing = new ReadMetric();
+            ReadMetric timing = new ReadMetric(reporter, config.requestPhases());
             NanoTimer timer = new NanoTimer();
+            RequestPhases phases = new RequestPhases(config.requestPhases());
 
-            while (System.currentTimeMillis() < finishTimestamp) {
-                timer.next();
-                try (YdbRuntime.YdbSession session = ydb.createSession().join()) {
-                    timing.recordGetSession(true, timer.next());
-
-                    AppRecord record = randomRecord();
+            try (SessionHolder sessions = new SessionHolder(ydb, config.stickySessions())) {
+                while (System.currentTimeMillis() < finishTimestamp) {
+                    long intended = pacer.awaitNext();
                     timer.next();
+                    long started = timer.last();
+                    phases.start(pacer.isOpenLoop() ? intended : 0);
+                    boolean ok = false;
                     try {
-                        AppRecord readed = session.read(record.uuid()).join();
-                        timing.recordReadData(true, timer.next());
+                        YdbRuntime.YdbSession session = sessions.acquire();
+                        timing.recordGetSession(true, timer.next());
+                        phases.mark(RequestPhases.Phase.SESSION);
 
-                        if (!record.equals(readed)) {
-                            logger.error("readed wrong record");
+                        if (!session.isReadPrepared()) {
+                            timing.recordPrepareQuery(session.prepareRead().join(), timer.next());
                         }
 
-                        timing.requestInc();
+                        key.select(chooser.next());
+                        timer.next();
+                        try {
+                            AppRecord readed = phases.sent(session.read(key.uuid())).join();
+                            phases.mark(RequestPhases.Phase.CALLBACK);
+                            timing.recordReadData(true, timer.next());
+                            ok = true;
+
+                            verifier.verify(key, readed);
+                            phases.mark(RequestPhases.Phase.VERIFY);
+
+                            timing.requestInc();
+                        } catch (RuntimeException ex) {
+                            timing.recordReadData(false, timer.next());
+                        }
                     } catch (RuntimeException ex) {
-                        timing.recordReadData(false, timer.next());
+                        timing.recordGetSession(false, timer.next());
+                        logger.warn("can't read record {}", ex.getMessage());
+                    }
+
+                    if (sessions.release()) {
+                        timing.sessionRecreateInc();
+                    }
+
+                    if (pacer.isOpenLoop()) {
+                        timing.recordRequest(ok, intended, started, timer.last());
                     }
-                } catch (RuntimeException ex) {
-                    timing.recordGetSession(false, timer.next());
-                    logger.warn("can't read record {}", ex.getMessage());
+                    timing.recordPhases(phases, ok);
                 }
             }
 
@@ -0,0 +1,135 @@
+package tech.ydb.performance.workload;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.performance.AppConfig;
+import tech.ydb.performance.api.AppRecord;
+import tech.ydb.performance.api.Metric;
+
+/**
+ * Verifies records returned by read requests
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class RecordVerifier {
+    private static final Logger logger = LoggerFactory.getLogger(RecordVerifier.class);
+    private static final int SAMPLED_QUEUE_SIZE = 4096;
+
+    private final AppConfig.VerifyMode mode;
+    private final int recordSize;
+    private final int sampleRate;
+
+    private final LongAdder checked = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    private final BlockingQueue<SampledRecord> sampled;
+    private Thread sampledVerifier = null;
+    private volatile boolean stopped = false;
+
+    public RecordVerifier(AppConfig config) {
+        this.mode = config.verifyMode();
+        this.recordSize = config.recordSize();
+        this.sampleRate = Math.max(1, config.verifySampleRate());
+        this.sampled = mode == AppConfig.VerifyMode.SAMPLED ? new ArrayBlockingQueue<>(SAMPLED_QUEUE_SIZE) : null;
+
+        logger.info("verify mode {}", mode.name().toLowerCase());
+    }
+
+    public void start() {
+        if (mode != AppConfig.VerifyMode.SAMPLED) {
+            return;
+        }
+
+        stopped = false;
+        sampledVerifier = new Thread(this::verifySampled, "sampled-verifier");
+        sampledVerifier.setDaemon(true);
+        sampledVerifier.start();
+    }
+
+    public void close() {
+        if (sampledVerifier == null) {
+            return;
+        }
+
+        stopped = true;
+        try {
+            sampledVerifier.join();
+        } catch (InterruptedException ex) {
+            logger.error("interrupted", ex);
+            Thread.currentThread().interrupt();
+        }
+        sampledVerifier = null;
+    }
+
+    public void verify(ReadKey key, AppRecord readed) {
+        switch (mode) {
+            case FULL:
+                check(key.expectedRecord().equals(readed));
+                break;
+            case CHECKSUM:
+                check(readed != null && key.uuid().equals(readed.uuid())
+                        && key.expectedChecksum() == AppRecord.checksum(readed.payload()));
+                break;
+            case SAMPLED:
+                if (ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+                    if (!sampled.offer(new SampledRecord(key.index(), readed))) {
+                        skipped.increment();
+                    }
+                }
+                break;
+            case OFF:
+            default:
+                break;
+        }
+    }
+
+    public List<Metric> toMetrics() {
+        return Arrays.asList(
+                new Metric("VERIFY_CHECKED_COUNT", checked.sum(), Metric.Aggregation.SUM),
+                new Metric("VERIFY_MISMATCH_COUNT", mismatches.sum(), Metric.Aggregation.SUM),
+                new Metric("VERIFY_SKIPPED_COUNT", skipped.sum(), Metric.Aggregation.SUM)
+        );
+    }
+
+    private void check(boolean ok) {
+        checked.increment();
+        if (!ok) {
+            mismatches.increment();
+            logger.error("readed wrong record");
+        }
+    }
+
+    private void verifySampled() {
+        try {
+            while (!stopped || !sampled.isEmpty()) {
+                SampledRecord record = sampled.poll(100, TimeUnit.MILLISECONDS);
+                if (record != null) {
+                    check(AppRecord.createByIndex(record.index, recordSize).equals(record.readed));
+                }
+            }
+        } catch (InterruptedException ex) {
+            logger.warn("sampled verifier is interrupted");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class SampledRecord {
+        private final long index;
+        private final AppRecord readed;
+
+        SampledRecord(long index, AppRecord readed) {
+            this.index = index;
+            this.readed = readed;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package tech.ydb.performance.workload;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.performance.AppConfig;
+import tech.ydb.performance.api.Metric;
+import tech.ydb.performance.api.Workload;
+import tech.ydb.performance.metrics.ResourceMeter;
+
+/**
+ * Wrapper of any workload which measures client side resources of its run and reports them per operation
+ * and per row. Optionally the run is recorded by Java Flight Recorder.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class ResourceWorkload implements Workload {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceWorkload.class);
+
+    // counters of operations of workloads, the first available one is used
+    private static final String[] OPERATIONS = {
+        "REQUESTS_TOTAL_COUNT", "LOAD_OK_TOTAL_COUNT", "SCAN_RANGE_OK_TOTAL_COUNT"
+    };
+    private static final String[] ROWS = {
+        "LOAD_ROWS_TOTAL_COUNT", "SCAN_ROWS_TOTAL_COUNT"
+    };
+
+    private final AppConfig config;
+    private final Workload workload;
+    private final ResourceMeter meter = new ResourceMeter();
+
+    public ResourceWorkload(AppConfig config, Workload workload) {
+        this.config = config;
+        this.workload = workload;
+    }
+
+    @Override
+    public List<Metric> metrics() {
+        List<Metric> metrics = workload.metrics();
+        if (!config.resourceAccounting()) {
+            return metrics;
+        }
+
+        Map<String, Double> values = metrics.stream().collect(Collectors.toMap(Metric::name, Metric::value,
+                (v1, v2) -> v2));
+        Function<String[], Double> first = names -> Stream.of(names).filter(values::containsKey)
+                .map(values::get).findFirst().orElse(0d);
+
+        return Stream.of(metrics, meter.toMetrics(), meter.toMetrics("OP", first.apply(OPERATIONS)),
+                meter.toMetrics("ROW", first.apply(ROWS)))
+                .flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    @Override
+    public void run() {
+        if (config.resourceAccounting() && !meter.isSupported()) {
+            logger.warn("thread CPU time and allocations aren't supported by JVM, only process CPU is reported");
+        }
+
+        Recording recording = startRecording();
+        meter.start();
+        try {
+            workload.run();
+        } finally {
+            meter.finish();
+            stopRecording(recording);
+        }
+    }
+
+    private Recording startRecording() {
+        if (config.jfrFile() == null) {
+            return null;
+        }
+
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.setName("ydb-performance");
+            recording.start();
+            return recording;
+        } catch (IOException | ParseException | RuntimeException ex) {
+            logger.error("can't start JFR recording", ex);
+            return null;
+        }
+    }
+
+    private void stopRecording(Recording recording) {
+        if (recording == null) {
+            return;
+        }
+
+        try {
+            recording.stop();
+            recording.dump(Paths.get(config.jfrFile()));
+            logger.info("JFR recording is written to {}", config.jfrFile());
+        } catch (IOException ex) {
+            logger.error("can't write JFR recording {}", config.jfrFile(), ex);
+        } finally {
+            recording.close();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package tech.ydb.performance.workload;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.performance.AppConfig;
+import tech.ydb.performance.api.Metric;
+import tech.ydb.performance.api.Workload;
+import tech.ydb.performance.api.YdbRuntime;
+import tech.ydb.performance.metrics.IntervalReporter;
+import tech.ydb.performance.metrics.RequestMetric;
+
+/**
+ * Streams the whole table once. Key space is split into ranges by the first 32 bits of uuid, threads take
+ * ranges from the shared queue and process result parts as soon as they arrive.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class ScanWorkload implements Workload {
+    private static final Logger logger = LoggerFactory.getLogger(ScanWorkload.class);
+
+    private static final String UUID_SUFFIX = "-0000-0000-0000-000000000000";
+    // approximate size of text uuid in the row
+    private static final int UUID_SIZE = 36;
+
+    private final AppConfig config;
+    private final YdbRuntime ydb;
+    private final RequestMetric rangeMetric = new RequestMetric();
+    private final RequestMetric firstRowMetric = new RequestMetric();
+    private final IntervalReporter reporter;
+
+    private final LongAdder rowsCount = new LongAdder();
+    private final LongAdder bytesCount = new LongAdder();
+    private long started = System.currentTimeMillis();
+    private long finished = started + 1;
+
+    public ScanWorkload(AppConfig config, YdbRuntime ydb) {
+        if (config.shard() < 0 || config.shard() >= config.shards()) {
+            throw new IllegalArgumentException("Shard must be in range [0, " + config.shards() + ")");
+        }
+        this.config = config;
+        this.ydb = ydb;
+        this.reporter = new IntervalReporter(1000L * config.reportIntervalSeconds(), config.reportFile());
+    }
+
+    @Override
+    public List<Metric> metrics() {
+        long ms = finished - started;
+        return Stream.of(rangeMetric.toMetrics("SCAN_RANGE"), firstRowMetric.toMetrics("SCAN_FIRST_ROW"),
+                Arrays.asList(
+                        new Metric("SCAN_MODE_" + config.scanMode().name(), 1, Metric.Aggregation.SAME),
+                        new Metric("SCAN_ROWS_TOTAL_COUNT", rowsCount.sum(), Metric.Aggregation.SUM),
+                        new Metric("SCAN_ROWS_PER_SECOND", 1000d * rowsCount.sum() / ms, Metric.Aggregation.SUM),
+                        new Metric("SCAN_MB_PER_SECOND", 1000d * bytesCount.sum() / ms / (1024 * 1024),
+                                Metric.Aggregation.SUM)
+                )).flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    @Override
+    public void run() {
+        int rangesCount = config.scanRanges() > 0 ? config.scanRanges() : config.threadsCount();
+        Queue<ScanRange> ranges = new ConcurrentLinkedQueue<>(
+                splitRanges(rangesCount, config.shard(), config.shards()));
+
+        logger.info("run {} scan of {} ranges with {} threads", config.scanMode(), rangesCount,
+                config.threadsCount());
+        if (config.testDurationSeconds() > 0) {
+            logger.info("scan workload makes the single pass over table, test duration is ignored");
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.threadsCount(), new NamedThreadFactory("scan"));
+        List<CompletableFuture<ScanTask>> tasks = new ArrayList<>();
+
+        started = System.currentTimeMillis();
+        reporter.start();
+        for (int idx = 0; idx < config.threadsCount(); idx += 1) {
+            ScanTask task = new ScanTask(ranges);
+            tasks.add(CompletableFuture.supplyAsync(task::call, executor));
+        }
+
+        logger.info("wait to finish all ranges...");
+
+        // collect all timings
+        tasks.forEach(future -> {
+            ScanTask task = future.join();
+            rangeMetric.merge(task.rangeTiming);
+            firstRowMetric.merge(task.firstRowTiming);
+        });
+
+        finished = Math.max(started + 1, System.currentTimeMillis());
+        reporter.close();
+
+        logger.info("scanned {} rows in {} ms", rowsCount.sum(), finished - started);
+
+        try {
+            logger.info("shutdown workload");
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            logger.error("interrupted", ex);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ranges are split by the first 8 hex digits of uuid, the last range of the last shard has no right bound
+    static List<ScanRange> splitRanges(int count, int shard, int shards) {
+        long first = (1L << 32) * shard / shards;
+        long last = (1L << 32) * (shard + 1) / shards;
+        List<ScanRange> ranges = new ArrayList<>(count);
+        String from = String.format("%08x", first) + UUID_SUFFIX;
+        for (int idx = 1; idx <= count; idx += 1) {
+            boolean unbounded = idx == count && shard == shards - 1;
+            String to = unbounded ? null : String.format("%08x", first + (last - first) * idx / count) + UUID_SUFFIX;
+            ranges.add(new ScanRange(from, to));
+            from = to;
+        }
+        return ranges;
+    }
+
+    static class ScanRange {
+        final String fromUuid;
+        final String toUuid;
+
+        ScanRange(String fromUuid, String toUuid) {
+            this.fromUuid = fromUuid;
+            this.toUuid = toUuid;
+        }
+    }
+
+    private class ScanTask implements Callable<ScanTask>, YdbRuntime.ScanConsumer {
+        private final Queue<ScanRange> ranges;
+        private final RequestMetric rangeTiming = new RequestMetric(reporter.recorder("SCAN_RANGE"));
+        private final RequestMetric firstRowTiming = new RequestMetric();
+
+        // state of the current range, consumer is never called concurrently
+        private long rangeStartNs;
+        private boolean firstRow;
+        private long rows;
+        private long bytes;
+
+        ScanTask(Queue<ScanRange> ranges) {
+            this.ranges = ranges;
+        }
+
+        @Override
+        public void accept(String uuid, byte[] payload) {
+            if (firstRow) {
+                firstRowTiming.record(true, System.nanoTime() - rangeStartNs);
+                firstRow = false;
+            }
+            rows += 1;
+            bytes += UUID_SIZE + payload.length;
+        }
+
+        @Override
+        public ScanTask call() {
+            ScanRange range = ranges.poll();
+            while (range != null) {
+                rangeStartNs = System.nanoTime();
+                firstRow = true;
+                rows = 0;
+                bytes = 0;
+
+                boolean ok = false;
+                try {
+                    ok = ydb.scan(config.scanMode(), range.fromUuid, range.toUuid, this).join();
+                } catch (RuntimeException ex) {
+                    logger.warn("can't scan range [{}, {}) {}", range.fromUuid, range.toUuid, ex.getMessage());
+                }
+                rangeTiming.record(ok, System.nanoTime() - rangeStartNs);
+                // partially streamed rows are counted too, they were transferred anyway
+                rowsCount.add(rows);
+                bytesCount.add(bytes);
+
+                range = ranges.poll();
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package tech.ydb.performance.workload;
+
+import tech.ydb.performance.api.YdbRuntime;
+
+/**
+ * Session of one worker. In sticky mode the session is kept between requests and
+ * is recreated only after BAD_SESSION like errors, otherwise it is returned to the pool after every request.
+ *
+ * @author Aleksandr Gorshenin
+ */
+class SessionHolder implements AutoCloseable {
+    private final YdbRuntime ydb;
+    private final boolean sticky;
+    private YdbRuntime.YdbSession session = null;
+
+    SessionHolder(YdbRuntime ydb, boolean sticky) {
+        this.ydb = ydb;
+        this.sticky = sticky;
+    }
+
+    public YdbRuntime.YdbSession acquire() {
+        if (session == null) {
+            session = ydb.createSession().join();
+        }
+        return session;
+    }
+
+    /**
+     * Releases the session after the request
+     * @return true if the sticky session was broken and will be recreated
+     */
+    public boolean release() {
+        if (session == null) {
+            return false;
+        }
+
+        boolean recreate = sticky && session.isBroken();
+        if (!sticky || recreate) {
+            session.close();
+            session = null;
+        }
+        return recreate;
+    }
+
+    @Override
+    public void close() {
+        if (session != null) {
+            session.close();
+            session = null;
+        }
+    }
+}
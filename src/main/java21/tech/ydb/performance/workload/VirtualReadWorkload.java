@@ -0,0 +1,232 @@
+package tech.ydb.performance.workload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.performance.AppConfig;
+import tech.ydb.performance.api.AppRecord;
+import tech.ydb.performance.api.Metric;
+import tech.ydb.performance.api.Workload;
+import tech.ydb.performance.api.YdbRuntime;
+import tech.ydb.performance.metrics.IntervalReporter;
+import tech.ydb.performance.metrics.NanoTimer;
+import tech.ydb.performance.metrics.ReadMetric;
+import tech.ydb.performance.metrics.RequestPhases;
+
+/**
+ * Blocking read loop of {@link ReadWorkload} executed on virtual threads, one virtual thread per reader.
+ * Compiled only by the java21 profile.
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class VirtualReadWorkload implements Workload {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualReadWorkload.class);
+
+    // readers share metrics, one histogram set per reader is too much for tens of thousands of readers
+    private static final int READERS_PER_SHARD = 64;
+    private static final int WARMUP_SESSIONS_LIMIT = 1000;
+
+    private final AppConfig config;
+    private final YdbRuntime ydb;
+    private final ReadMetric metric;
+    private final IntervalReporter reporter;
+    private final KeyIndex keyIndex;
+    private final RecordVerifier verifier;
+    private final KeyDistribution keyDistribution;
+    private final VirtualThreadMonitor monitor = new VirtualThreadMonitor();
+
+    public VirtualReadWorkload(AppConfig config, YdbRuntime ydb) {
+        this.config = config;
+        this.metric = new ReadMetric(config.requestPhases());
+        this.ydb = ydb;
+        this.reporter = new IntervalReporter(1000L * config.reportIntervalSeconds(), config.reportFile());
+        this.keyIndex = KeyIndex.open(config);
+        this.verifier = new RecordVerifier(config);
+        this.keyDistribution = new KeyDistribution(config);
+    }
+
+    @Override
+    public List<Metric> metrics() {
+        return Stream.of(metric.toMetrics(), monitor.toMetrics(), verifier.toMetrics(), keyDistribution.toMetrics())
+                .flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    @Override
+    public void run() {
+        if (!config.warmupIsDisabled()) {
+            int warmupCount = Math.min(config.threadsCount(), WARMUP_SESSIONS_LIMIT);
+            logger.info("warnup {} sessions", warmupCount);
+            List<CompletableFuture<YdbRuntime.YdbSession>> sessions = new ArrayList<>();
+            for (int idx = 0; idx < warmupCount; idx += 1) {
+                sessions.add(ydb.createSession());
+            }
+            sessions.forEach(future -> future.join().close());
+        }
+
+        logger.info("run virtual read workload with {} readers", config.threadsCount());
+        int shardsCount = (config.threadsCount() + READERS_PER_SHARD - 1) / READERS_PER_SHARD;
+        List<MetricShard> shards = new ArrayList<>(shardsCount);
+        for (int idx = 0; idx < shardsCount; idx += 1) {
+            shards.add(new MetricShard(new ReadMetric(reporter, config.requestPhases())));
+        }
+
+        long finishTime = System.currentTimeMillis() + 1000 * config.testDurationSeconds();
+        double readerRate = (double)config.rate() / config.threadsCount();
+        long startNs = System.nanoTime();
+        metric.start();
+        reporter.start();
+        verifier.start();
+        monitor.start();
+        metric.setTargetRate(config.rate());
+        metric.setStickySessions(config.stickySessions());
+
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("vread-", 0).factory())) {
+            List<Future<?>> readers = new ArrayList<>(config.threadsCount());
+            for (int idx = 0; idx < config.threadsCount(); idx += 1) {
+                // shift start times of readers to spread requests uniformly
+                long readerStartNs = readerRate > 0 ? startNs + (long)(1e9d * idx / config.rate()) : startNs;
+                Reader reader = new Reader(finishTime, new Pacer(readerRate, readerStartNs),
+                        shards.get(idx / READERS_PER_SHARD), keyDistribution.newChooser(idx));
+                readers.add(executor.submit(reader::run));
+            }
+
+            logger.info("wait {}s to finish all readers...", config.testDurationSeconds());
+            readers.forEach(this::join);
+        }
+
+        monitor.close();
+        shards.forEach(shard -> metric.merge(shard.metric));
+
+        metric.finish();
+        reporter.close();
+        verifier.close();
+    }
+
+    private void join(Future<?> reader) {
+        try {
+            reader.get();
+        } catch (InterruptedException ex) {
+            logger.error("interrupted", ex);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            logger.error("reader failed", ex.getCause());
+        }
+    }
+
+    private static class MetricShard {
+        // synchronized blocks pin virtual threads, so shards are guarded by the lock
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ReadMetric metric;
+
+        MetricShard(ReadMetric metric) {
+            this.metric = metric;
+        }
+    }
+
+    private class Reader {
+        private final ReadKey key = new ReadKey(keyIndex, config.recordSize());
+        private final long finishTimestamp;
+        private final Pacer pacer;
+        private final MetricShard shard;
+        private final KeyChooser chooser;
+        private final RequestPhases phases = new RequestPhases(config.requestPhases());
+
+        Reader(long finishTimestamp, Pacer pacer, MetricShard shard, KeyChooser chooser) {
+            this.finishTimestamp = finishTimestamp;
+            this.pacer = pacer;
+            this.shard = shard;
+            this.chooser = chooser;
+        }
+
+        public void run() {
+            NanoTimer timer = new NanoTimer();
+
+            try (SessionHolder sessions = new SessionHolder(ydb, config.stickySessions())) {
+                while (System.currentTimeMillis() < finishTimestamp) {
+                    long intended = pacer.awaitNext();
+                    timer.next();
+                    long started = timer.last();
+                    phases.start(pacer.isOpenLoop() ? intended : 0);
+
+                    // timings are collected locally and recorded to the shared shard under one lock
+                    boolean sessionOk = false;
+                    boolean preparing = false;
+                    boolean prepared = false;
+                    boolean ok = false;
+                    long sessionNs = 0;
+                    long prepareNs = 0;
+                    long readNs = 0;
+                    try {
+                        YdbRuntime.YdbSession session = sessions.acquire();
+                        sessionNs = timer.next();
+                        sessionOk = true;
+                        phases.mark(RequestPhases.Phase.SESSION);
+
+                        preparing = !session.isReadPrepared();
+                        if (preparing) {
+                            prepared = session.prepareRead().join();
+                            prepareNs = timer.next();
+                        }
+
+                        key.select(chooser.next());
+                        timer.next();
+                        try {
+                            AppRecord readed = phases.sent(session.read(key.uuid())).join();
+                            phases.mark(RequestPhases.Phase.CALLBACK);
+                            readNs = timer.next();
+                            ok = true;
+
+                            verifier.verify(key, readed);
+                            phases.mark(RequestPhases.Phase.VERIFY);
+                        } catch (RuntimeException ex) {
+                            readNs = timer.next();
+                        }
+                    } catch (RuntimeException ex) {
+                        if (!sessionOk) {
+                            sessionNs = timer.next();
+                        }
+                        logger.warn("can't read record {}", ex.getMessage());
+                    }
+
+                    boolean recreated = sessions.release();
+
+                    shard.lock.lock();
+                    try {
+                        ReadMetric timing = shard.metric;
+                        timing.recordGetSession(sessionOk, sessionNs);
+                        if (sessionOk) {
+                            if (preparing) {
+                                timing.recordPrepareQuery(prepared, prepareNs);
+                            }
+                            timing.recordReadData(ok, readNs);
+                        }
+                        if (ok) {
+                            timing.requestInc();
+                        }
+                        if (recreated) {
+                            timing.sessionRecreateInc();
+                        }
+                        if (pacer.isOpenLoop()) {
+                            timing.recordRequest(ok, intended, started, timer.last());
+                        }
+                        timing.recordPhases(phases, ok);
+                    } finally {
+                        shard.lock.unlock();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package tech.ydb.performance.workload;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.performance.api.Metric;
+
+/**
+ * Measures CPU utilization of carrier threads of the virtual thread scheduler and collects pinning
+ * events of virtual threads with JFR streaming. CPU time of carriers is sampled by thread ids every second,
+ * so carriers which exit during the run keep the CPU time of their last sample.
+ *
+ * @author Aleksandr Gorshenin
+ */
+class VirtualThreadMonitor implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    // carriers of the default scheduler are instances of this internal class
+    private static final String CARRIER_CLASS = "jdk.internal.misc.CarrierThread";
+    private static final long SAMPLE_INTERVAL_MS = 1000;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final int parallelism = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+            Runtime.getRuntime().availableProcessors());
+
+    private final LongAdder pinnedCount = new LongAdder();
+    private final LongAdder pinnedNs = new LongAdder();
+    private RecordingStream pinnedEvents = null;
+
+    // the first and the last samples of CPU time by carrier thread id
+    private final Map<Long, long[]> carriersCpuNs = new HashMap<>();
+    private ScheduledExecutorService sampler = null;
+    private long startedNs = 0;
+    private long finishedNs = 0;
+
+    public void start() {
+        sampleCarriers(true);
+        startedNs = System.nanoTime();
+        if (threads.isThreadCpuTimeSupported()) {
+            sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "carriers-sampler");
+                t.setDaemon(true);
+                return t;
+            });
+            sampler.scheduleAtFixedRate(() -> sampleCarriers(false), SAMPLE_INTERVAL_MS, SAMPLE_INTERVAL_MS,
+                    TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            pinnedEvents = new RecordingStream();
+            pinnedEvents.enable(PINNED_EVENT).withoutThreshold().withStackTrace();
+            pinnedEvents.onEvent(PINNED_EVENT, event -> {
+                pinnedCount.increment();
+                pinnedNs.add(event.getDuration().toNanos());
+                if (logger.isDebugEnabled()) {
+                    logger.debug("virtual thread is pinned for {} at\n{}", event.getDuration(),
+                            format(event.getStackTrace()));
+                }
+            });
+            pinnedEvents.startAsync();
+        } catch (RuntimeException ex) {
+            logger.warn("can't start JFR stream, pinning events are not collected", ex);
+            pinnedEvents = null;
+        }
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\tunknown";
+        }
+        return stackTrace.getFrames().stream().map(VirtualThreadMonitor::format).collect(Collectors.joining("\n"));
+    }
+
+    private static String format(RecordedFrame frame) {
+        if (frame.getMethod() == null) {
+            return "\tunknown frame";
+        }
+        return "\t" + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    @Override
+    public void close() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+            sampler = null;
+        }
+        sampleCarriers(false);
+        finishedNs = System.nanoTime();
+
+        if (pinnedEvents != null) {
+            // stop flushes all recorded events to the handler
+            pinnedEvents.stop();
+            pinnedEvents.close();
+            pinnedEvents = null;
+        }
+    }
+
+    public synchronized List<Metric> toMetrics() {
+        long cpuNs = 0;
+        for (long[] samples: carriersCpuNs.values()) {
+            cpuNs += samples[1] - samples[0];
+        }
+        long wallNs = Math.max(1, finishedNs - startedNs);
+        double utilization = (double) cpuNs / wallNs / parallelism;
+        return Arrays.asList(
+                new Metric("CARRIER_THREADS_PARALLELISM", parallelism),
+                new Metric("CARRIER_THREADS_COUNT", carriersCpuNs.size(), Metric.Aggregation.SUM),
+                new Metric("CARRIER_CPU_UTILIZATION", utilization),
+                new Metric("PINNED_EVENTS_COUNT", pinnedCount.sum(), Metric.Aggregation.SUM),
+                new Metric("PINNED_EVENTS_TOTAL_MS", pinnedNs.sum() / 1e6d, Metric.Aggregation.SUM)
+        );
+    }
+
+    // carriers started after the first sample have used all their CPU time during the run
+    private synchronized void sampleCarriers(boolean first) {
+        if (!threads.isThreadCpuTimeSupported()) {
+            return;
+        }
+
+        for (Thread thread: platformThreads()) {
+            if (!CARRIER_CLASS.equals(thread.getClass().getName())) {
+                continue;
+            }
+            long cpuNs = threads.getThreadCpuTime(thread.threadId());
+            if (cpuNs < 0) {
+                continue;
+            }
+            long[] samples = carriersCpuNs.get(thread.threadId());
+            if (samples == null) {
+                carriersCpuNs.put(thread.threadId(), new long[] { first ? cpuNs : 0, cpuNs });
+            } else {
+                samples[1] = cpuNs;
+            }
+        }
+    }
+
+    private static Thread[] platformThreads() {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        Thread[] all = new Thread[root.activeCount() + 16];
+        int count = root.enumerate(all, true);
+        while (count == all.length) {
+            all = new Thread[all.length * 2];
+            count = root.enumerate(all, true);
+        }
+        return Arrays.copyOf(all, count);
+    }
+}
@@ -0,0 +1,36 @@
+package tech.ydb.performance;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class AppConfigTest {
+    @Test
+    public void saturationRangeTest() {
+        AppConfig config = AppConfig.parseArgs("--saturate", "threads", "--saturate-from", "4",
+                "grpc://localhost:2136/local", "read");
+        Assert.assertEquals(4, config.saturationFrom());
+        Assert.assertEquals(1024, config.saturationMax());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void saturationFromAboveMaxTest() {
+        AppConfig.parseArgs("--saturate", "threads", "--saturate-from", "64", "--saturate-max", "32",
+                "grpc://localhost:2136/local", "read");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void checksumWithoutKeyIndexTest() {
+        AppConfig.parseArgs("--verify", "checksum", "grpc://localhost:2136/local", "read");
+    }
+
+    @Test
+    public void checksumWithKeyIndexTest() {
+        AppConfig config = AppConfig.parseArgs("--verify", "checksum", "--key-index", "keys.bin",
+                "grpc://localhost:2136/local", "read");
+        Assert.assertEquals(AppConfig.VerifyMode.CHECKSUM, config.verifyMode());
+    }
+}
@@ -0,0 +1,40 @@
+package tech.ydb.performance;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class ClusterProtocolTest {
+    @Test
+    public void removeOptionsTest() {
+        String[] args = new String[] {
+            "--coordinator", "2137", "--workers=3", "-t", "16", "--rate", "1000", "--tablename", "rate",
+            "grpc://localhost:2136/local", "read"
+        };
+
+        Assert.assertEquals(
+                Arrays.asList("-t", "16", "--tablename", "rate", "grpc://localhost:2136/local", "read"),
+                ClusterProtocol.removeOptions(args, "coordinator", "workers", "rate"));
+    }
+
+    @Test
+    public void keepOptionsTest() {
+        String[] args = new String[] { "--rate-limit", "10", "--shards=2", "--use-in-memory", "mem", "load" };
+
+        Assert.assertEquals(Arrays.asList(args), ClusterProtocol.removeOptions(args, "rate", "shard"));
+        Assert.assertEquals(Collections.emptyList(), ClusterProtocol.removeOptions(new String[0], "rate"));
+    }
+
+    @Test
+    public void workerFileTest() {
+        Assert.assertEquals("live-worker1.csv", ClusterProtocol.workerFile("live.csv", 1));
+        Assert.assertEquals("/tmp/run.1/live-worker0", ClusterProtocol.workerFile("/tmp/run.1/live", 0));
+        Assert.assertEquals(".report-worker2", ClusterProtocol.workerFile(".report", 2));
+    }
+}
@@ -0,0 +1,57 @@
+package tech.ydb.performance;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class CompareAppTest {
+    private final CompareApp app = new CompareApp(AppConfig.parseArgs(new String[] {
+        "--compare", "current.json", "--baseline", "baseline.json",
+        "--tolerance-throughput", "5", "--tolerance-latency", "10", "--tolerance-latency-min-ms", "0.1"
+    }));
+
+    @Test
+    public void throughputTest() {
+        Assert.assertEquals("OK", app.status("REQUESTS_COUNT_PER_SECOND", 1000, 960d));
+        Assert.assertEquals("REGRESSION", app.status("REQUESTS_COUNT_PER_SECOND", 1000, 940d));
+        Assert.assertEquals("IMPROVED", app.status("REQUESTS_COUNT_PER_SECOND", 1000, 1060d));
+        Assert.assertEquals("MISSING", app.status("REQUESTS_COUNT_PER_SECOND", 1000, null));
+    }
+
+    @Test
+    public void latencyTest() {
+        Assert.assertEquals("OK", app.status("READ_DATA_OK_P99_MS", 10, 10.9d));
+        Assert.assertEquals("REGRESSION", app.status("READ_DATA_OK_P99_MS", 10, 11.1d));
+        Assert.assertEquals("IMPROVED", app.status("READ_DATA_OK_P99_99_MS", 10, 8d));
+        Assert.assertEquals("MISSING", app.status("READ_DATA_OK_P50_MS", 10, null));
+    }
+
+    @Test
+    public void subMillisecondLatencyTest() {
+        // 50% growth of tiny latency is less than the absolute tolerance
+        Assert.assertEquals("OK", app.status("GET_SESSION_OK_P50_MS", 0.01, 0.015d));
+        Assert.assertEquals("REGRESSION", app.status("GET_SESSION_OK_P50_MS", 0.01, 0.2d));
+    }
+
+    @Test
+    public void errorLatenciesAreNotGatedTest() {
+        Assert.assertEquals("", app.status("READ_DATA_ERROR_P99_MS", 10, null));
+        Assert.assertEquals("", app.status("READ_DATA_ERROR_P99_MS", 10, 100d));
+    }
+
+    @Test
+    public void otherMetricsTest() {
+        Assert.assertEquals("", app.status("READ_DATA_OK_TOTAL_COUNT", 10, null));
+        Assert.assertEquals("", app.status("READ_DATA_OK_AVG_MS", 10, 100d));
+    }
+
+    @Test
+    public void saturationProbesAreNotGatedTest() {
+        Assert.assertEquals("", app.status("SATURATION_PROBE_003_PER_SECOND", 1000, 10d));
+        Assert.assertEquals("", app.status("SATURATION_PROBE_007_PER_SECOND", 1000, null));
+        Assert.assertEquals("REGRESSION", app.status("SATURATION_KNEE_PER_SECOND", 1000, 10d));
+    }
+}
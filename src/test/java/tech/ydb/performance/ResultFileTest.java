@@ -0,0 +1,92 @@
+package tech.ydb.performance;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.performance.api.Metric;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class ResultFileTest {
+    @Test
+    public void roundTripTest() throws IOException {
+        AppConfig config = AppConfig.parseArgs(new String[] {
+            "--use-in-memory", "-t", "4", "--tablename", "tab\\le \"quoted\"", "mem", "read"
+        });
+        List<Metric> metrics = Arrays.asList(
+                new Metric("REQUESTS_COUNT_PER_SECOND", 12345.678),
+                new Metric("READ_DATA_OK_P99_MS", 0.00123),
+                new Metric("BIG_VALUE", 1.5e12),
+                new Metric("NEGATIVE", -3),
+                new Metric("NOT_A_NUMBER", Double.NaN)
+        );
+
+        Path path = Files.createTempFile("result", ".json");
+        try {
+            ResultFile.of(config, "in-memory", metrics).write(path);
+            ResultFile read = ResultFile.read(path);
+
+            Assert.assertEquals("in-memory", read.metadata().get("runtime"));
+            Assert.assertEquals("mem", read.metadata().get("endpoint"));
+            Assert.assertEquals("READ", read.metadata().get("cmd"));
+            Assert.assertEquals(String.join(" ", config.arguments()), read.metadata().get("args"));
+
+            Assert.assertEquals(4, read.metrics().size());
+            Assert.assertEquals(12345.678, read.metrics().get("REQUESTS_COUNT_PER_SECOND"), 1e-9);
+            Assert.assertEquals(0.00123, read.metrics().get("READ_DATA_OK_P99_MS"), 1e-9);
+            Assert.assertEquals(1.5e12, read.metrics().get("BIG_VALUE"), 1e-3);
+            Assert.assertEquals(-3, read.metrics().get("NEGATIVE"), 1e-9);
+            // NaN is written as null and skipped by the reader
+            Assert.assertNull(read.metrics().get("NOT_A_NUMBER"));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void readFormattedFileTest() throws IOException {
+        String json = "{ \"metadata\" : { \"host\" : \"h\\u0041\", \"app\": null },\n"
+                + "\"metrics\":{\"A\":1,\"B\" : 2.5e-3, \"C\": null} }";
+        ResultFile read = ResultFile.read(write(json));
+
+        Assert.assertEquals("hA", read.metadata().get("host"));
+        Assert.assertTrue(read.metadata().containsKey("app"));
+        Assert.assertNull(read.metadata().get("app"));
+        Assert.assertEquals(1d, read.metrics().get("A"), 1e-9);
+        Assert.assertEquals(0.0025d, read.metrics().get("B"), 1e-9);
+        Assert.assertFalse(read.metrics().containsKey("C"));
+    }
+
+    @Test
+    public void jsonValuesTest() {
+        Assert.assertEquals("1.5", ResultFile.number(1.5d));
+        Assert.assertEquals("null", ResultFile.number(Double.NaN));
+        Assert.assertEquals("null", ResultFile.number(Double.POSITIVE_INFINITY));
+        Assert.assertEquals("\"a\\\"b\\u0009\"", ResultFile.quote("a\"b\t"));
+    }
+
+    @Test(expected = IOException.class)
+    public void brokenFileTest() throws IOException {
+        ResultFile.read(write("{\"metrics\": {\"A\": }"));
+    }
+
+    @Test(expected = IOException.class)
+    public void notJsonFileTest() throws IOException {
+        ResultFile.read(write("metric;value\nA;1\n"));
+    }
+
+    private static Path write(String text) throws IOException {
+        Path path = Files.createTempFile("result", ".json");
+        path.toFile().deleteOnExit();
+        return Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+    }
+}
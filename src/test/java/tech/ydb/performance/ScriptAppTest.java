@@ -0,0 +1,69 @@
+package tech.ydb.performance;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class ScriptAppTest {
+    private static List<List<String>> expand(String... args) {
+        return ScriptApp.expandSweeps(Arrays.asList(args));
+    }
+
+    @Test
+    public void noSweepsTest() {
+        Assert.assertEquals(Collections.singletonList(Arrays.asList("-t", "8", "--rate", "100")),
+                expand("-t", "8", "--rate", "100"));
+        Assert.assertEquals(Collections.singletonList(Collections.emptyList()), expand());
+    }
+
+    @Test
+    public void linearSweepTest() {
+        Assert.assertEquals(Arrays.asList(
+                Arrays.asList("-t", "1"), Arrays.asList("-t", "2"), Arrays.asList("-t", "3")
+        ), expand("-t", "1..3"));
+
+        Assert.assertEquals(Arrays.asList(
+                Arrays.asList("--rate=100"), Arrays.asList("--rate=350"), Arrays.asList("--rate=600")
+        ), expand("--rate=100..700+250"));
+    }
+
+    @Test
+    public void geometricSweepTest() {
+        Assert.assertEquals(Arrays.asList(
+                Arrays.asList("--threads=1"), Arrays.asList("--threads=2"), Arrays.asList("--threads=4"),
+                Arrays.asList("--threads=8")
+        ), expand("--threads=1..8x2"));
+    }
+
+    @Test
+    public void crossProductTest() {
+        Assert.assertEquals(Arrays.asList(
+                Arrays.asList("-t", "1", "--rate", "10"),
+                Arrays.asList("-t", "1", "--rate", "20"),
+                Arrays.asList("-t", "2", "--rate", "10"),
+                Arrays.asList("-t", "2", "--rate", "20")
+        ), expand("-t", "1..2", "--rate", "10..20+10"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reversedSweepTest() {
+        expand("-t", "8..1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongGeometricStepTest() {
+        expand("-t", "1..8x1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void geometricFromZeroTest() {
+        expand("-t", "0..8x2");
+    }
+}
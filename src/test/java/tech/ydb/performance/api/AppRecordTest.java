@@ -0,0 +1,39 @@
+package tech.ydb.performance.api;
+
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class AppRecordTest {
+    @Test
+    public void compatibilityTest() {
+        for (long idx = 0; idx < 1000; idx += 1) {
+            Random rnd = new Random(idx * 31 + 21);
+            byte[] payload = new byte[100];
+            rnd.nextBytes(payload);
+
+            AppRecord record = AppRecord.createByIndex(idx, 100);
+            Assert.assertArrayEquals(payload, record.payload());
+            Assert.assertEquals(UUID.nameUUIDFromBytes(payload).toString(), record.uuid());
+        }
+    }
+
+    @Test
+    public void createPayloadTest() {
+        byte[] payload = new byte[200];
+        for (long idx = 0; idx < 1000; idx += 1) {
+            AppRecord record = AppRecord.createByIndex(idx, payload.length);
+            UUID uuid = AppRecord.createPayload(idx, payload);
+
+            Assert.assertEquals(record.uuid(), uuid.toString());
+            Assert.assertArrayEquals(record.payload(), payload);
+            Assert.assertEquals(AppRecord.checksum(record.payload()), AppRecord.checksum(payload));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package tech.ydb.performance.metrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.performance.api.Metric;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class DistributedMetricsTest {
+    private static List<Metric> transfer(List<Metric> metrics) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DistributedMetrics.write(new DataOutputStream(bytes), metrics);
+        return DistributedMetrics.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    private static Map<String, Double> values(List<Metric> metrics) {
+        return metrics.stream().collect(Collectors.toMap(Metric::name, Metric::value));
+    }
+
+    private static List<Metric> workerMetrics(long latencyNs, double rate, double cpu) {
+        TimingMetric timing = new TimingMetric();
+        for (int idx = 0; idx < 100; idx += 1) {
+            timing.record(latencyNs);
+        }
+        List<Metric> metrics = new ArrayList<>();
+        metrics.add(new Metric("REQUESTS_COUNT", 100, Metric.Aggregation.SUM));
+        metrics.addAll(timing.toMetrics("READ_DATA_OK_"));
+        metrics.add(new Metric("REQUESTS_COUNT_PER_SECOND", rate, Metric.Aggregation.SUM));
+        metrics.add(new Metric("REQUESTS_TOTAL_MS", rate * 10, Metric.Aggregation.MAX));
+        metrics.add(new Metric("CLIENT_CPU_PERCENT", cpu));
+        metrics.add(new Metric("KEY_DISTRIBUTION_UNIFORM", 1, Metric.Aggregation.SAME));
+        // the name doesn't define the aggregation
+        metrics.add(new Metric("VERIFY_SAMPLE_COUNT", 10));
+        return metrics;
+    }
+
+    @Test
+    public void roundTripTest() throws IOException {
+        List<Metric> metrics = workerMetrics(2_000_000, 50, 10);
+        List<Metric> readed = transfer(metrics);
+
+        Assert.assertEquals(metrics.size(), readed.size());
+        for (int idx = 0; idx < metrics.size(); idx += 1) {
+            Assert.assertEquals(metrics.get(idx).name(), readed.get(idx).name());
+            Assert.assertEquals(metrics.get(idx).value(), readed.get(idx).value(), 1e-9);
+            Assert.assertEquals(metrics.get(idx).aggregation(), readed.get(idx).aggregation());
+        }
+    }
+
+    @Test
+    public void mergeTest() throws IOException {
+        List<Metric> merged = DistributedMetrics.merge(Arrays.asList(
+                transfer(workerMetrics(1_000_000, 50, 10)),
+                transfer(workerMetrics(100_000_000, 30, 20))
+        ));
+        Map<String, Double> values = values(merged);
+
+        Assert.assertEquals("REQUESTS_COUNT", merged.get(0).name());
+        Assert.assertEquals(200d, values.get("REQUESTS_COUNT"), 0);
+        Assert.assertEquals(80d, values.get("REQUESTS_COUNT_PER_SECOND"), 0);
+        Assert.assertEquals(500d, values.get("REQUESTS_TOTAL_MS"), 0);
+        Assert.assertEquals(15d, values.get("CLIENT_CPU_PERCENT"), 0);
+        Assert.assertEquals(1d, values.get("KEY_DISTRIBUTION_UNIFORM"), 0);
+        Assert.assertEquals(10d, values.get("VERIFY_SAMPLE_COUNT"), 0);
+
+        // percentiles are computed over requests of both workers, not averaged
+        Assert.assertEquals(200d, values.get("READ_DATA_OK_TOTAL_COUNT"), 0);
+        Assert.assertEquals(1d, values.get("READ_DATA_OK_MIN_MS"), 0.01);
+        Assert.assertEquals(100d, values.get("READ_DATA_OK_MAX_MS"), 1);
+        Assert.assertEquals(100d, values.get("READ_DATA_OK_P90_MS"), 1);
+        Assert.assertEquals(50.5d, values.get("READ_DATA_OK_AVG_MS"), 0.01);
+    }
+}
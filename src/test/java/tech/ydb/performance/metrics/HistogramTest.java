@@ -0,0 +1,128 @@
+package tech.ydb.performance.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class HistogramTest {
+    @Test
+    public void bucketBoundsTest() {
+        long[] values = { 0, 1, 63, 64, 127, 128, 129, 1000, 4095, 4096, 123456789, Histogram.MAX_TRACKABLE };
+        for (long value: values) {
+            int idx = Histogram.bucketIndex(value);
+            long lower = Histogram.bucketLowerBound(idx);
+            long width = Histogram.bucketWidth(idx);
+            Assert.assertTrue("lower bound of " + value, lower <= value);
+            Assert.assertTrue("upper bound of " + value, value < lower + width);
+            Assert.assertTrue("relative error of " + value, width == 1 || (double) width / lower <= 1d / 64);
+        }
+
+        Assert.assertEquals(Histogram.BUCKETS_COUNT - 1, Histogram.bucketIndex(Histogram.MAX_TRACKABLE));
+    }
+
+    @Test
+    public void bucketsAreContinuousTest() {
+        for (int idx = 1; idx < Histogram.BUCKETS_COUNT; idx += 1) {
+            Assert.assertEquals("bucket " + idx, Histogram.bucketLowerBound(idx - 1) + Histogram.bucketWidth(idx - 1),
+                    Histogram.bucketLowerBound(idx));
+        }
+    }
+
+    @Test
+    public void cumulativeCountTest() {
+        Histogram histogram = new Histogram();
+        for (long value = 90_000; value < 110_000; value += 10) {
+            histogram.record(value);
+        }
+
+        // the count is exact for the upper bound of the whole bucket before the bound
+        int bucket = Histogram.lastBucketNotGreater(100_000);
+        long le = Histogram.bucketUpperBound(bucket);
+        Assert.assertTrue(le <= 100_000 && le + Histogram.bucketWidth(bucket + 1) > 100_000);
+        Assert.assertEquals((le - 90_000) / 10 + 1, histogram.cumulativeCount(bucket));
+
+        Assert.assertEquals(-1, Histogram.lastBucketNotGreater(-1));
+        Assert.assertEquals(0, Histogram.lastBucketNotGreater(0));
+        Assert.assertEquals(0, histogram.cumulativeCount(-1));
+        Assert.assertEquals(2000, histogram.cumulativeCount(Histogram.BUCKETS_COUNT - 1));
+    }
+
+    @Test
+    public void percentilesTest() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 100_000; value += 1) {
+            histogram.record(value);
+        }
+
+        Assert.assertEquals(100_000, histogram.totalCount());
+        assertNear(50_000, histogram.valueAtQuantile(0.5));
+        assertNear(90_000, histogram.valueAtQuantile(0.9));
+        assertNear(99_000, histogram.valueAtQuantile(0.99));
+        assertNear(99_900, histogram.valueAtQuantile(0.999));
+        assertNear(1, histogram.valueAtQuantile(0));
+    }
+
+    @Test
+    public void emptyHistogramTest() {
+        Histogram histogram = new Histogram();
+        Assert.assertEquals(0, histogram.totalCount());
+        Assert.assertEquals(0, histogram.valueAtQuantile(0.99));
+    }
+
+    @Test
+    public void outOfRangeValuesTest() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        Assert.assertEquals(2, histogram.totalCount());
+        Assert.assertEquals(0, histogram.valueAtQuantile(0.5));
+        assertNear(Histogram.MAX_TRACKABLE, histogram.valueAtQuantile(1));
+    }
+
+    @Test
+    public void mergeAndResetTest() {
+        Histogram h1 = new Histogram();
+        Histogram h2 = new Histogram();
+        for (int idx = 0; idx < 100; idx += 1) {
+            h1.record(1000);
+            h2.record(3000);
+        }
+
+        h1.merge(h2);
+        h1.merge(new Histogram());
+        Assert.assertEquals(200, h1.totalCount());
+        assertNear(1000, h1.valueAtQuantile(0.5));
+        assertNear(3000, h1.valueAtQuantile(0.51));
+
+        h1.reset();
+        Assert.assertEquals(0, h1.totalCount());
+        Assert.assertEquals(0, h1.valueAtQuantile(0.5));
+    }
+
+    @Test
+    public void timingMetricPercentilesTest() {
+        TimingMetric metric = new TimingMetric();
+        Assert.assertTrue(metric.toMetrics("READ_").isEmpty());
+
+        for (int idx = 1; idx <= 1000; idx += 1) {
+            metric.record(idx * 1_000_000L);
+        }
+
+        Assert.assertEquals(1000, metric.count());
+        Assert.assertEquals(500.5d, metric.avgMs(), 1e-9);
+        Assert.assertEquals(1000d, metric.maxMs(), 1e-9);
+        Assert.assertEquals(500d, metric.percentileMs(0.5), 500d / 64);
+        Assert.assertEquals(990d, metric.percentileMs(0.99), 990d / 64);
+        // percentiles never exceed the exact max value
+        Assert.assertEquals(1000d, metric.percentileMs(1), 1e-9);
+        Assert.assertEquals(10, metric.toMetrics("READ_").size());
+    }
+
+    private static void assertNear(long expected, long actual) {
+        Assert.assertEquals((double) expected, (double) actual, Math.max(1d, expected / 64d));
+    }
+}
@@ -0,0 +1,86 @@
+package tech.ydb.performance.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class IntervalRecorderTest {
+    private static final int WRITERS = 4;
+    private static final int RECORDS = 200_000;
+
+    @Test
+    public void intervalsTest() {
+        IntervalRecorder recorder = new IntervalRecorder(null, true);
+        recorder.record(true, 1000);
+        recorder.record(false, 2000);
+
+        RequestMetric interval = new RequestMetric();
+        recorder.collectInterval(interval);
+        Assert.assertEquals(1, interval.oks().count());
+        Assert.assertEquals(1, interval.errors().count());
+
+        // the next interval doesn't contain records of the previous one
+        RequestMetric next = new RequestMetric();
+        recorder.collectInterval(next);
+        Assert.assertEquals(0, next.oks().count());
+        Assert.assertEquals(0, next.errors().count());
+    }
+
+    @Test
+    public void concurrentReaderLosesNothingTest() throws InterruptedException {
+        // every recorder has one writer thread, intervals are collected concurrently with writing
+        List<IntervalRecorder> recorders = new ArrayList<>();
+        List<Thread> writers = new ArrayList<>();
+        for (int idx = 0; idx < WRITERS; idx += 1) {
+            IntervalRecorder recorder = new IntervalRecorder(null, true);
+            Thread writer = new Thread(() -> {
+                for (int record = 0; record < RECORDS; record += 1) {
+                    recorder.record(record % 10 != 0, record);
+                }
+            });
+            recorders.add(recorder);
+            writers.add(writer);
+            writer.start();
+        }
+
+        RequestMetric total = new RequestMetric();
+        while (writers.stream().anyMatch(Thread::isAlive)) {
+            recorders.forEach(recorder -> recorder.collectInterval(total));
+        }
+        for (Thread writer: writers) {
+            writer.join();
+        }
+        recorders.forEach(recorder -> recorder.collectInterval(total));
+
+        Assert.assertEquals((long) WRITERS * RECORDS * 9 / 10, total.oks().count());
+        Assert.assertEquals((long) WRITERS * RECORDS / 10, total.errors().count());
+    }
+
+    @Test
+    public void phaserWaitsForWritersTest() throws InterruptedException {
+        WriterReaderPhaser phaser = new WriterReaderPhaser();
+        long critical = phaser.writerCriticalSectionEnter();
+
+        Thread reader = new Thread(() -> {
+            phaser.readerLock();
+            try {
+                phaser.flipPhase();
+            } finally {
+                phaser.readerUnlock();
+            }
+        });
+        reader.start();
+        reader.join(200);
+        Assert.assertTrue("flip must wait for the writer of the previous phase", reader.isAlive());
+
+        phaser.writerCriticalSectionExit(critical);
+        reader.join(10_000);
+        Assert.assertFalse(reader.isAlive());
+    }
+}
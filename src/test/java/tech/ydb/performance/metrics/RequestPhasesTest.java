@@ -0,0 +1,91 @@
+package tech.ydb.performance.metrics;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.performance.api.Metric;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class RequestPhasesTest {
+    @Test
+    public void disabledTest() {
+        RequestPhases phases = new RequestPhases(false);
+        CompletableFuture<String> future = new CompletableFuture<>();
+
+        phases.start(System.nanoTime());
+        Assert.assertSame(future, phases.sent(future));
+        for (RequestPhases.Phase phase: RequestPhases.Phase.values()) {
+            Assert.assertEquals(-1, phases.durationNs(phase));
+        }
+    }
+
+    @Test
+    public void phasesTest() {
+        RequestPhases phases = new RequestPhases(true);
+        CompletableFuture<String> future = new CompletableFuture<>();
+
+        // closed loop request hasn't schedule phase
+        phases.start(0);
+        phases.mark(RequestPhases.Phase.SESSION);
+        CompletableFuture<String> sent = phases.sent(future);
+        Assert.assertEquals(-1, phases.durationNs(RequestPhases.Phase.RESPONSE));
+
+        future.complete("ok");
+        Assert.assertEquals("ok", sent.join());
+        phases.mark(RequestPhases.Phase.CALLBACK);
+
+        Assert.assertEquals(-1, phases.durationNs(RequestPhases.Phase.SCHEDULE));
+        Assert.assertTrue(phases.durationNs(RequestPhases.Phase.SESSION) >= 0);
+        Assert.assertTrue(phases.durationNs(RequestPhases.Phase.SEND) >= 0);
+        Assert.assertTrue(phases.durationNs(RequestPhases.Phase.RESPONSE) >= 0);
+        Assert.assertTrue(phases.durationNs(RequestPhases.Phase.CALLBACK) >= 0);
+        Assert.assertEquals(-1, phases.durationNs(RequestPhases.Phase.VERIFY));
+    }
+
+    @Test
+    public void nextReadTest() {
+        RequestPhases phases = new RequestPhases(true);
+        ReadMetric metric = new ReadMetric(true);
+
+        phases.start(System.nanoTime());
+        phases.mark(RequestPhases.Phase.SESSION);
+        for (int idx = 0; idx < 3; idx += 1) {
+            if (idx > 0) {
+                phases.next();
+            }
+            phases.sent(CompletableFuture.completedFuture(idx)).join();
+            phases.mark(RequestPhases.Phase.CALLBACK);
+            phases.mark(RequestPhases.Phase.VERIFY);
+            metric.recordPhases(phases, idx != 2);
+        }
+
+        // schedule and session phases are counted once per request, the others once per read
+        Map<String, Double> values = metric.toMetrics().stream().collect(Collectors.toMap(Metric::name, Metric::value));
+        Assert.assertEquals(1d, values.get("PHASE_SCHEDULE_OK_TOTAL_COUNT"), 0);
+        Assert.assertEquals(1d, values.get("PHASE_SESSION_OK_TOTAL_COUNT"), 0);
+        Assert.assertEquals(2d, values.get("PHASE_SEND_OK_TOTAL_COUNT"), 0);
+        Assert.assertEquals(2d, values.get("PHASE_VERIFY_OK_TOTAL_COUNT"), 0);
+        // phases of the failed read are errors
+        Assert.assertEquals(1d, values.get("PHASE_SEND_ERROR_TOTAL_COUNT"), 0);
+    }
+
+    @Test
+    public void disabledMetricTest() {
+        RequestPhases phases = new RequestPhases(true);
+        ReadMetric metric = new ReadMetric(false);
+
+        phases.start(System.nanoTime());
+        phases.mark(RequestPhases.Phase.SESSION);
+        metric.recordPhases(phases, true);
+        metric.merge(new ReadMetric(true));
+
+        Assert.assertTrue(metric.toMetrics().stream().noneMatch(m -> m.name().startsWith("PHASE_")));
+    }
+}
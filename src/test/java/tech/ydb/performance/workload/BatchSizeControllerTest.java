@@ -0,0 +1,108 @@
+package tech.ydb.performance.workload;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.performance.api.Metric;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class BatchSizeControllerTest {
+    private static final long OK_LATENCY_NS = 10_000_000L;
+
+    private static Map<String, Double> values(BatchSizeController controller) {
+        return controller.toMetrics().stream().collect(Collectors.toMap(Metric::name, Metric::value));
+    }
+
+    // one epoch of the current generation with the given rows per second
+    private static void epoch(BatchSizeController controller, long startMs, int rowsPerSecond) {
+        int generation = controller.generation();
+        controller.onComplete(generation, controller.batchSize(), 0, true, OK_LATENCY_NS, startMs);
+        controller.onComplete(generation, rowsPerSecond, 0, true, OK_LATENCY_NS, startMs + 1000);
+    }
+
+    @Test
+    public void fixedSizeTest() {
+        BatchSizeController controller = new BatchSizeController(false, 1000, 10000, 100, 1);
+        for (int idx = 0; idx < 10; idx += 1) {
+            controller.onComplete(0, 1000, 0, false, OK_LATENCY_NS, idx * 1000);
+        }
+        Assert.assertEquals(1000, controller.batchSize());
+        Assert.assertEquals(1, controller.toMetrics().size());
+    }
+
+    @Test
+    public void hillClimbingTest() {
+        BatchSizeController controller = new BatchSizeController(true, 100, 10000, 100, 1);
+
+        epoch(controller, 0, 1000);
+        Assert.assertEquals(125, controller.batchSize());
+        Assert.assertEquals(1, controller.generation());
+
+        epoch(controller, 2000, 2000);
+        Assert.assertEquals(157, controller.batchSize());
+
+        // throughput drops, so the size turns back
+        epoch(controller, 4000, 1000);
+        Assert.assertEquals(125, controller.batchSize());
+
+        Map<String, Double> values = values(controller);
+        Assert.assertEquals(125d, values.get("LOAD_BATCH_SIZE_BEST"), 0);
+        Assert.assertEquals(3d, values.get("LOAD_BATCH_EPOCHS_COUNT"), 0);
+        Assert.assertEquals(125d, values.get("LOAD_BATCH_SIZE_STEP_003"), 0);
+    }
+
+    @Test
+    public void staleCompletionsTest() {
+        BatchSizeController controller = new BatchSizeController(true, 100, 10000, 100, 1);
+        epoch(controller, 0, 1000);
+        Assert.assertEquals(125, controller.batchSize());
+
+        // batches of the previous size are still completed, they must not finish the epoch
+        for (int idx = 0; idx < 5; idx += 1) {
+            controller.onComplete(0, 100, 0, false, OK_LATENCY_NS, 2000 + idx * 1000);
+        }
+        Assert.assertEquals(125, controller.batchSize());
+        Assert.assertEquals(5d, values(controller).get("LOAD_BATCH_STALE_COUNT"), 0);
+
+        // the next epoch starts with the first completion of the current generation
+        controller.onComplete(1, 125, 0, true, OK_LATENCY_NS, 10000);
+        controller.onComplete(1, 125, 0, true, OK_LATENCY_NS, 10500);
+        Assert.assertEquals(125, controller.batchSize());
+        controller.onComplete(1, 2000, 0, true, OK_LATENCY_NS, 11000);
+        Assert.assertEquals(157, controller.batchSize());
+    }
+
+    @Test
+    public void backOffTest() {
+        BatchSizeController controller = new BatchSizeController(true, 1000, 10000, 100, 1);
+
+        // failed upsert halves the size
+        controller.onComplete(0, 1000, 0, true, OK_LATENCY_NS, 0);
+        controller.onComplete(0, 1000, 0, false, OK_LATENCY_NS, 1000);
+        Assert.assertEquals(500, controller.batchSize());
+
+        // latency above the limit halves the size
+        controller.onComplete(1, 500, 0, true, 200_000_000L, 2000);
+        controller.onComplete(1, 500, 0, true, 200_000_000L, 3000);
+        Assert.assertEquals(250, controller.batchSize());
+        Assert.assertEquals(2, controller.generation());
+    }
+
+    @Test
+    public void minCompletionsTest() {
+        BatchSizeController controller = new BatchSizeController(true, 100, 10000, 100, 3);
+
+        controller.onComplete(0, 100, 0, true, OK_LATENCY_NS, 0);
+        controller.onComplete(0, 100, 0, true, OK_LATENCY_NS, 1000);
+        controller.onComplete(0, 100, 0, true, OK_LATENCY_NS, 1500);
+        Assert.assertEquals(100, controller.batchSize());
+        controller.onComplete(0, 100, 0, true, OK_LATENCY_NS, 2000);
+        Assert.assertEquals(125, controller.batchSize());
+    }
+}
@@ -0,0 +1,152 @@
+package tech.ydb.performance.workload;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.performance.AppConfig;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class KeyDistributionTest {
+    private static final int COUNT = 1000;
+    private static final int SAMPLES = 200_000;
+
+    private static AppConfig config(String... args) {
+        String[] all = new String[args.length + 6];
+        all[0] = "--recordcount";
+        all[1] = String.valueOf(COUNT);
+        all[2] = "--threads";
+        all[3] = "4";
+        System.arraycopy(args, 0, all, 4, args.length);
+        all[args.length + 4] = "grpc://localhost:2136/local";
+        all[args.length + 5] = "read";
+        return AppConfig.parseArgs(all);
+    }
+
+    private static long[] histogram(KeyChooser chooser, long count) {
+        long[] hits = new long[(int) count];
+        for (int idx = 0; idx < SAMPLES; idx += 1) {
+            long key = chooser.next();
+            Assert.assertTrue("key " + key + " is out of range", key >= 0 && key < count);
+            hits[(int) key] += 1;
+        }
+        return hits;
+    }
+
+    private static double zeta(long count, double theta) {
+        double sum = 0;
+        for (long idx = 1; idx <= count; idx += 1) {
+            sum += 1.0d / Math.pow(idx, theta);
+        }
+        return sum;
+    }
+
+    @Test
+    public void uniformTest() {
+        long[] hits = histogram(new KeyDistribution(config()).newChooser(0), COUNT);
+        for (long value: hits) {
+            Assert.assertEquals(SAMPLES / COUNT, value, SAMPLES / COUNT * 0.5);
+        }
+    }
+
+    @Test
+    public void zipfianTest() {
+        long[] hits = histogram(new KeyDistribution(config("--key-distribution", "zipfian")).newChooser(0), COUNT);
+
+        // the first ranks follow 1 / i^theta, the most popular key is the first one
+        double zetan = zeta(COUNT, 0.99);
+        Assert.assertEquals(SAMPLES / zetan, hits[0], SAMPLES / zetan * 0.05);
+        Assert.assertEquals(SAMPLES / zetan / Math.pow(2, 0.99), hits[1], SAMPLES / zetan * 0.05);
+        Assert.assertTrue(hits[0] > hits[10] && hits[10] > hits[COUNT - 1]);
+    }
+
+    @Test
+    public void zipfianThetaTest() {
+        long[] skewed = histogram(new KeyDistribution(config("--key-distribution", "zipfian",
+                "--zipfian-theta", "0.99")).newChooser(0), COUNT);
+        long[] flat = histogram(new KeyDistribution(config("--key-distribution", "zipfian",
+                "--zipfian-theta", "0.5")).newChooser(0), COUNT);
+        Assert.assertTrue(skewed[0] > 2 * flat[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zipfianInvalidThetaTest() {
+        new KeyDistribution(config("--key-distribution", "zipfian", "--zipfian-theta", "1"));
+    }
+
+    @Test
+    public void hotspotTest() {
+        long[] hits = histogram(new KeyDistribution(config("--key-distribution", "hotspot",
+                "--hotspot-fraction", "0.1", "--hotspot-ops", "0.9")).newChooser(0), COUNT);
+
+        long hot = 0;
+        for (int idx = 0; idx < COUNT / 10; idx += 1) {
+            hot += hits[idx];
+        }
+        Assert.assertEquals(0.9d, (double) hot / SAMPLES, 0.01);
+    }
+
+    @Test
+    public void sequentialTest() {
+        KeyDistribution distribution = new KeyDistribution(config("--key-distribution", "sequential"));
+
+        KeyChooser first = distribution.newChooser(0);
+        KeyChooser last = distribution.newChooser(3);
+        for (int idx = 0; idx < COUNT; idx += 1) {
+            Assert.assertEquals(idx, first.next());
+        }
+        Assert.assertEquals(0, first.next());
+
+        Assert.assertEquals(COUNT * 3 / 4, last.next());
+
+        // choosers of workload with more choosers than threads don't repeat each other
+        Assert.assertEquals(COUNT * 5 / 8, distribution.newChooser(5, 8).next());
+    }
+
+    @Test
+    public void latestTest() {
+        KeyDistribution loaded = new KeyDistribution(config("--key-distribution", "latest"));
+        long[] hits = histogram(loaded.newChooser(0), COUNT);
+        Assert.assertTrue(hits[COUNT - 1] > hits[COUNT - 11] && hits[COUNT - 11] > hits[0]);
+    }
+
+    @Test
+    public void latestFollowsInsertsTest() {
+        InsertedKeys inserted = new InsertedKeys(COUNT, 0, 1, 2);
+        KeyChooser chooser = new KeyDistribution(config("--key-distribution", "latest"), inserted).newChooser(0);
+
+        long first = inserted.reserve(0);
+        long second = inserted.reserve(1);
+        Assert.assertEquals(COUNT, first);
+        Assert.assertEquals(COUNT + 1, second);
+
+        // the insert in progress hides itself and all the next records
+        inserted.complete(1);
+        Assert.assertEquals(COUNT, inserted.count());
+        histogram(chooser, COUNT);
+
+        inserted.complete(0);
+        Assert.assertEquals(COUNT + 2, inserted.count());
+        long[] hits = histogram(chooser, COUNT + 2);
+        Assert.assertTrue(hits[COUNT + 1] > hits[COUNT - 1]);
+    }
+
+    @Test
+    public void shardedInsertsTest() {
+        InsertedKeys inserted = new InsertedKeys(COUNT, 1, 3, 1);
+        KeyChooser chooser = new KeyDistribution(config("--key-distribution", "latest"), inserted).newChooser(0);
+
+        // instances of distributed run insert records of their own shards
+        for (int idx = 0; idx < 3; idx += 1) {
+            Assert.assertEquals(COUNT + 3 * idx + 1, inserted.reserve(0));
+            inserted.complete(0);
+        }
+        Assert.assertEquals(COUNT + 3, inserted.count());
+
+        long[] hits = histogram(chooser, COUNT + 8);
+        Assert.assertTrue(hits[COUNT + 7] > hits[COUNT - 1]);
+        Assert.assertEquals(0, hits[COUNT + 6] + hits[COUNT + 5] + hits[COUNT + 3] + hits[COUNT + 2]);
+    }
+}
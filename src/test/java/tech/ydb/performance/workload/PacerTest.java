@@ -0,0 +1,47 @@
+package tech.ydb.performance.workload;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class PacerTest {
+    @Test
+    public void closedLoopTest() {
+        Pacer pacer = new Pacer(0, System.nanoTime());
+        Assert.assertFalse(pacer.isOpenLoop());
+
+        long before = System.nanoTime();
+        long next = pacer.awaitNext();
+        Assert.assertTrue(next >= before && next <= System.nanoTime());
+    }
+
+    @Test
+    public void fixedTimelineTest() {
+        long startNs = System.nanoTime() - 1_000_000_000L;
+        Pacer pacer = new Pacer(1000, startNs);
+        Assert.assertTrue(pacer.isOpenLoop());
+
+        // pacer is behind the schedule, so intended times are in the past and there is no waiting
+        long begin = System.nanoTime();
+        for (int idx = 0; idx < 500; idx += 1) {
+            Assert.assertEquals(startNs + idx * 1_000_000L, pacer.awaitNext());
+        }
+        Assert.assertTrue(System.nanoTime() - begin < 500_000_000L);
+    }
+
+    @Test
+    public void waitForScheduleTest() {
+        long startNs = System.nanoTime();
+        Pacer pacer = new Pacer(100, startNs);
+        long last = 0;
+        for (int idx = 0; idx < 5; idx += 1) {
+            last = pacer.awaitNext();
+        }
+
+        Assert.assertEquals(startNs + 40_000_000L, last);
+        Assert.assertTrue(System.nanoTime() >= last);
+    }
+}
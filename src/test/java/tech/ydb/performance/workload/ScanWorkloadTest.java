@@ -0,0 +1,40 @@
+package tech.ydb.performance.workload;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Aleksandr Gorshenin
+ */
+public class ScanWorkloadTest {
+    @Test
+    public void splitRangesTest() {
+        List<ScanWorkload.ScanRange> ranges = ScanWorkload.splitRanges(4, 0, 1);
+        Assert.assertEquals(4, ranges.size());
+        Assert.assertEquals("00000000-0000-0000-0000-000000000000", ranges.get(0).fromUuid);
+        Assert.assertEquals("40000000-0000-0000-0000-000000000000", ranges.get(0).toUuid);
+        Assert.assertEquals("c0000000-0000-0000-0000-000000000000", ranges.get(3).fromUuid);
+        Assert.assertNull(ranges.get(3).toUuid);
+    }
+
+    @Test
+    public void splitShardsTest() {
+        List<ScanWorkload.ScanRange> all = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard += 1) {
+            all.addAll(ScanWorkload.splitRanges(5, shard, 3));
+        }
+
+        // ranges of all shards cover the whole table without gaps and overlaps
+        Assert.assertEquals(15, all.size());
+        Assert.assertEquals("00000000-0000-0000-0000-000000000000", all.get(0).fromUuid);
+        for (int idx = 1; idx < all.size(); idx += 1) {
+            Assert.assertEquals(all.get(idx - 1).toUuid, all.get(idx).fromUuid);
+            Assert.assertTrue(all.get(idx - 1).fromUuid.compareTo(all.get(idx).fromUuid) < 0);
+        }
+        Assert.assertNull(all.get(14).toUuid);
+    }
+}